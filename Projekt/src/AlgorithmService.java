@@ -0,0 +1,138 @@
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.concurrent.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Spusta vypocty nad grafom (Algorithms) v pracovnych vlaknach ako ulohy javafx.concurrent.Task,
+ * aby nezablokovali JavaFX vlakno. Ulohy su rozdelene do kanalov podla ucelu: nova uloha v kanali
+ * zrusi predchadzajucu, ktorej vysledok by uz bol neaktualny. Metody sa volaju z JavaFX vlakna,
+ * kde sa odovzdavaju aj vysledky.
+ */
+public class AlgorithmService {
+
+    private final ExecutorService executor;
+    private final Map<String, AlgorithmTask<?>> running = new HashMap<>();
+    private final ReadOnlyObjectWrapper<AlgorithmTask<?>> lastTask = new ReadOnlyObjectWrapper<>();
+    private Consumer<Throwable> onFailure = error -> { };
+
+    public AlgorithmService() {
+        executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "algorithm-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spusti vypocet v pracovnom vlakne, predchadzajuci vypocet v tom istom kanali zrusi
+     * @param channel nazov kanala (napr. "path")
+     * @param job vypocet
+     * @param onResult spracovanie vysledku, vola sa v JavaFX vlakne len pre nezrusene ulohy
+     * @param <T> typ vysledku
+     * @return spustena uloha
+     */
+    public <T> AlgorithmTask<T> submit(String channel, Job<T> job, Consumer<T> onResult) {
+        cancel(channel);
+        AlgorithmTask<T> task = new AlgorithmTask<>(job);
+        task.setOnSucceeded(event -> {
+            running.remove(channel, task);
+            onResult.accept(task.getValue());
+        });
+        task.setOnFailed(event -> {
+            running.remove(channel, task);
+            onFailure.accept(task.getException());
+        });
+        task.setOnCancelled(event -> running.remove(channel, task));
+        running.put(channel, task);
+        lastTask.set(task);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Nastavi spracovanie chyb vypoctov, vola sa v JavaFX vlakne (predvolene sa chyba ignoruje)
+     * @param onFailure spracovanie vynimky, napr. zobrazenie pouzivatelovi
+     */
+    public void setOnFailure(Consumer<Throwable> onFailure) {
+        this.onFailure = onFailure;
+    }
+
+    /**
+     * Zrusi bezaci vypocet v danom kanali, jeho vysledok sa uz nespracuje
+     * @param channel nazov kanala
+     */
+    public void cancel(String channel) {
+        AlgorithmTask<?> task = running.remove(channel);
+        if (task != null) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Zrusi vsetky bezace vypocty (napr. pri nacitani ineho grafu)
+     */
+    public void cancelAll() {
+        for (AlgorithmTask<?> task: running.values()) {
+            task.cancel();
+        }
+        running.clear();
+    }
+
+    /**
+     *
+     * @return naposledy spustena uloha, napr. na zobrazenie jej priebehu
+     */
+    public ReadOnlyObjectProperty<AlgorithmTask<?>> lastTaskProperty() {
+        return lastTask.getReadOnlyProperty();
+    }
+
+    /**
+     * Vypocet spusteny v pracovnom vlakne
+     * @param <T> typ vysledku
+     */
+    public interface Job<T> {
+
+        /**
+         * @param task uloha, cez ktoru vypocet hlasi priebeh a zistuje, ci nebol zruseny
+         * @return vysledok vypoctu
+         */
+        T run(AlgorithmTask<T> task) throws Exception;
+    }
+
+    /**
+     * Uloha vykonavajuca jeden vypocet, spristupnuje hlasenie priebehu. Algoritmom sa odovzdava ako ProgressMonitor,
+     * zrusenie ulohy (cancel) ich tak ukonci a pracovne vlakno sa uvolni
+     * @param <T> typ vysledku
+     */
+    public static class AlgorithmTask<T> extends Task<T> implements ProgressMonitor {
+
+        private final Job<T> job;
+
+        AlgorithmTask(Job<T> job) {
+            this.job = job;
+        }
+
+        /**
+         * Nahlasi priebeh vypoctu
+         * @param done pocet hotovych krokov
+         * @param total celkovy pocet krokov
+         */
+        @Override
+        public void progress(double done, double total) {
+            updateProgress(done, total);
+        }
+
+        @Override
+        protected T call() throws Exception {
+            T result = job.run(this);
+            updateProgress(1, 1);
+            return result;
+        }
+    }
+}
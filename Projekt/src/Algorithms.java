@@ -1,12 +1,16 @@
-import javafx.util.Pair;
-
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 public class Algorithms {
 
+    private static final int LABEL_BLOCK = 4096;
+    private static final int CHECK_INTERVAL = 4096; // po tolkych spracovanych vrcholoch sa hlasi priebeh a zistuje zrusenie
 
     /**
      * Pomocou algoritmu BFS najde najkratsiu cestu medzi dvoma vrcholmi
+     * (ak je uz vypocitana tabulka najkratsich ciest grafu, cestu len precita z nej)
      * @param g instancia grafu
      * @param planetName1 nazov startoveho vrcholu
      * @param planetName2 nazov konecneho vrcholu
@@ -14,42 +18,302 @@ public class Algorithms {
      */
     public static List<Planet> shortestPath(Graph g, String planetName1, String planetName2) {
 
-        Planet planet1 = findPlanet(g, planetName1);
-        Planet planet2 = findPlanet(g, planetName2);
+        Planet planet1 = g.getPlanet(planetName1);
+        Planet planet2 = g.getPlanet(planetName2);
 
         if (planet1 == null || planet2 == null) { // nenastane
             return new ArrayList<>();
         }
 
-        Set<Planet> visited = new HashSet<>();
-        HashMap<Planet, Planet> predecessors = new HashMap<>();
-        Queue<Pair<Planet, Planet>> frontier = new LinkedList<>();
-        frontier.add(new Pair<>(planet1, null));
-
-        while (!frontier.isEmpty()) {
-            Pair<Planet, Planet> pair = frontier.poll();
-            Planet node1 = pair.getKey();
-            Planet predecessor = pair.getValue();
-            if (!visited.contains(node1)) {
-                visited.add(node1);
-                predecessors.put(node1, predecessor);
-                if (node1.getData().equals(planet2.getData())) {
-                    List<Planet> result = new ArrayList<>();
-                    while (node1 != null) {
-                        result.add(0, node1);
-                        node1 = predecessors.get(node1);
-                    }
-                    return result;
+        DistanceTable table = g.getDistanceTable();
+        if (table != null) {
+            return toPlanets(g, table.path(planet1.getId(), planet2.getId()));
+        }
+        return toPlanets(g, shortestPath(g.getCompactView(), planet1.getId(), planet2.getId()));
+    }
+
+    /**
+     * Pomocou algoritmu BFS najde najkratsiu cestu medzi dvoma vrcholmi v CSR pohlade na graf.
+     * Pouziva pracovne polia aktualneho vlakna, alokuje len vysledok
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestPath(CompactGraph g, int from, int to) {
+        return shortestPath(g, from, to, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Pomocou algoritmu BFS najde najkratsiu cestu medzi dvoma vrcholmi v CSR pohlade na graf
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @param context pracovne polia prehladavania
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestPath(CompactGraph g, int from, int to, TraversalContext context) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        context.begin(g.size());
+
+        context.visit(from, from);
+        context.enqueue(from);
+        while (!context.isQueueEmpty()) {
+            int node1 = context.dequeue();
+            if (node1 == to) {
+                return context.buildPath(from, to);
+            }
+            for (int i = offsets[node1]; i < offsets[node1 + 1]; i++) {
+                int node2 = targets[i];
+                if (!context.isVisited(node2)) {
+                    context.visit(node2, node1);
+                    context.enqueue(node2);
+                }
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Pomocou obojsmerneho BFS najde najkratsiu cestu medzi dvoma vrcholmi. Prehladava
+     * striedavo od oboch koncov a skonci, ked sa prehladane oblasti stretnu
+     * (ak je uz vypocitana tabulka najkratsich ciest grafu, cestu len precita z nej)
+     * @param g instancia grafu
+     * @param planetName1 nazov startoveho vrcholu
+     * @param planetName2 nazov konecneho vrcholu
+     * @return usporiadany zoznam vrcholov tvoriacich najkratsiu cestu
+     */
+    public static List<Planet> shortestPathBidirectional(Graph g, String planetName1, String planetName2) {
+        return shortestPathBidirectional(g, planetName1, planetName2, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Pomocou obojsmerneho BFS najde najkratsiu cestu medzi dvoma vrcholmi, priebezne hlasi priebeh
+     * a skonci vynimkou CancellationException, ak bol vypocet zruseny
+     * @param g instancia grafu
+     * @param planetName1 nazov startoveho vrcholu
+     * @param planetName2 nazov konecneho vrcholu
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return usporiadany zoznam vrcholov tvoriacich najkratsiu cestu
+     */
+    public static List<Planet> shortestPathBidirectional(Graph g, String planetName1, String planetName2,
+                                                         ProgressMonitor monitor) {
+
+        Planet planet1 = g.getPlanet(planetName1);
+        Planet planet2 = g.getPlanet(planetName2);
+
+        if (planet1 == null || planet2 == null) {
+            return new ArrayList<>();
+        }
+
+        DistanceTable table = g.getDistanceTable();
+        if (table != null) {
+            return toPlanets(g, table.path(planet1.getId(), planet2.getId()));
+        }
+        return toPlanets(g, shortestPathBidirectional(g.getCompactView(), planet1.getId(), planet2.getId(),
+                TraversalContext.forCurrentThread(), monitor));
+    }
+
+    /**
+     * Pomocou obojsmerneho BFS najde najkratsiu cestu medzi dvoma vrcholmi v CSR pohlade na graf.
+     * Pouziva pracovne polia aktualneho vlakna, alokuje len vysledok
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestPathBidirectional(CompactGraph g, int from, int to) {
+        return shortestPathBidirectional(g, from, to, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Pomocou obojsmerneho BFS najde najkratsiu cestu medzi dvoma vrcholmi v CSR pohlade na graf.
+     * V kazdom kroku rozvinie celu uroven mensej z dvoch front; ak pri tom najde spoj do oblasti
+     * prehladanej z druhej strany, dokonci uroven a vrati najkratsie z najdenych spojeni
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @param context pracovne polia prehladavania od startu, context.getReverse() sa pouzije od konca
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestPathBidirectional(CompactGraph g, int from, int to, TraversalContext context) {
+        return shortestPathBidirectional(g, from, to, context, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Pomocou obojsmerneho BFS najde najkratsiu cestu medzi dvoma vrcholmi v CSR pohlade na graf,
+     * priebeh hlasi podla poctu navstivenych vrcholov
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @param context pracovne polia prehladavania od startu, context.getReverse() sa pouzije od konca
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestPathBidirectional(CompactGraph g, int from, int to, TraversalContext context,
+                                                  ProgressMonitor monitor) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        TraversalContext forward = context;
+        TraversalContext backward = context.getReverse();
+        forward.begin(g.size());
+        backward.begin(g.size());
+
+        forward.visit(from, from, 0);
+        if (from == to) {
+            return new int[]{from};
+        }
+        forward.enqueue(from);
+        backward.visit(to, to, 0);
+        backward.enqueue(to);
+
+        int expanded = 0;
+        while (!forward.isQueueEmpty() && !backward.isQueueEmpty()) {
+            boolean forwardTurn = forward.queueSize() <= backward.queueSize();
+            TraversalContext side = forwardTurn ? forward : backward;
+            TraversalContext other = forwardTurn ? backward : forward;
+            double best = Double.POSITIVE_INFINITY;
+            int meet1 = -1;
+            int meet2 = -1;
+            for (int level = side.queueSize(); level > 0; level--) {
+                int node1 = side.dequeue();
+                if (++expanded % CHECK_INTERVAL == 0) {
+                    report(monitor, expanded, g.size());
                 }
-                for (Planet node2: node1.getNeighbours()) {
-                    if (!visited.contains(node2)) {
-                        frontier.add(new Pair<>(node2, node1));
+                double depth = side.getDistance(node1) + 1;
+                for (int i = offsets[node1]; i < offsets[node1 + 1]; i++) {
+                    int node2 = targets[i];
+                    if (other.isVisited(node2) && depth + other.getDistance(node2) < best) {
+                        best = depth + other.getDistance(node2);
+                        meet1 = node1;
+                        meet2 = node2;
+                    }
+                    if (!side.isVisited(node2)) {
+                        side.visit(node2, node1, depth);
+                        side.enqueue(node2);
                     }
                 }
+            }
+            if (meet1 != -1) {
+                return forwardTurn ? joinPaths(forward, backward, meet1, meet2) : joinPaths(forward, backward, meet2, meet1);
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Pomocou algoritmu A* najde najkratsiu cestu medzi dvoma vrcholmi, pricom dlzka cesty
+     * je sucet dlzok jej spojov (vzdialenosti planet v priestore), nie pocet krokov
+     * @param g instancia grafu
+     * @param planetName1 nazov startoveho vrcholu
+     * @param planetName2 nazov konecneho vrcholu
+     * @return usporiadany zoznam vrcholov tvoriacich najkratsiu cestu
+     */
+    public static List<Planet> shortestRoute(Graph g, String planetName1, String planetName2) {
+        return shortestRoute(g, planetName1, planetName2, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Pomocou algoritmu A* najde najkratsiu cestu podla dlzok spojov, priebezne hlasi priebeh
+     * a skonci vynimkou CancellationException, ak bol vypocet zruseny
+     * @param g instancia grafu
+     * @param planetName1 nazov startoveho vrcholu
+     * @param planetName2 nazov konecneho vrcholu
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return usporiadany zoznam vrcholov tvoriacich najkratsiu cestu
+     */
+    public static List<Planet> shortestRoute(Graph g, String planetName1, String planetName2, ProgressMonitor monitor) {
+
+        Planet planet1 = g.getPlanet(planetName1);
+        Planet planet2 = g.getPlanet(planetName2);
+
+        if (planet1 == null || planet2 == null) {
+            return new ArrayList<>();
+        }
+
+        return toPlanets(g, shortestRoute(g.getCompactView(), planet1.getId(), planet2.getId(),
+                TraversalContext.forCurrentThread(), monitor));
+    }
 
+    /**
+     * Pomocou algoritmu A* najde najkratsiu cestu podla dlzok spojov v CSR pohlade na graf.
+     * Heuristikou je priama vzdialenost od ciela, ktora nikdy nepresiahne dlzku skutocnej cesty.
+     * Pouziva pracovne polia aktualneho vlakna, alokuje len vysledok
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestRoute(CompactGraph g, int from, int to) {
+        return shortestRoute(g, from, to, TraversalContext.forCurrentThread());
+    }
+
+    /**
+     * Pomocou algoritmu A* najde najkratsiu cestu podla dlzok spojov v CSR pohlade na graf
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @param context pracovne polia prehladavania
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestRoute(CompactGraph g, int from, int to, TraversalContext context) {
+        return shortestRoute(g, from, to, context, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Pomocou algoritmu A* najde najkratsiu cestu podla dlzok spojov v CSR pohlade na graf,
+     * priebeh hlasi podla poctu uzavretych vrcholov
+     * @param g CSR pohlad na graf
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @param context pracovne polia prehladavania
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public static int[] shortestRoute(CompactGraph g, int from, int to, TraversalContext context, ProgressMonitor monitor) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        double[] weights = g.getWeights();
+        context.begin(g.size());
+        IndexedMinHeap open = context.getHeap();
+
+        context.visit(from, from, 0);
+        open.insertOrDecrease(from, g.distance(from, to));
+        int closed = 0;
+        while (!open.isEmpty()) {
+            int node1 = open.poll();
+            if (++closed % CHECK_INTERVAL == 0) {
+                report(monitor, closed, g.size());
+            }
+            if (node1 == to) {
+                return context.buildPath(from, to);
+            }
+            context.close(node1);
+            double distance1 = context.getDistance(node1);
+            for (int i = offsets[node1]; i < offsets[node1 + 1]; i++) {
+                int node2 = targets[i];
+                double distance = distance1 + weights[i];
+                if (!context.isClosed(node2) && distance < context.getDistance(node2)) {
+                    context.visit(node2, node1, distance);
+                    open.insertOrDecrease(node2, distance + g.distance(node2, to));
+                }
             }
         }
-        return new ArrayList<>();
+        return new int[0];
+    }
+
+    /**
+     * Funkcia vypocita dlzku cesty ako sucet vzdialenosti po sebe iducich vrcholov
+     * @param path usporiadany zoznam vrcholov cesty
+     * @return dlzka cesty v priestore
+     */
+    public static double pathLength(List<Planet> path) {
+        double result = 0;
+        for (int i = 1; i < path.size(); i++) {
+            result += path.get(i - 1).getCoords().distance(path.get(i).getCoords());
+        }
+        return result;
     }
 
     /**
@@ -59,47 +323,66 @@ public class Algorithms {
      * @return zoznam vrcholov tvoriacich komponent pre zadany vrchol
      */
     public static List<Planet> findComponent(Graph g, String planetName) {
+        return findComponent(g, planetName, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Pomocou algoritmu DFS najde pre zadany vrchol jeho komponent, priebezne hlasi priebeh
+     * a skonci vynimkou CancellationException, ak bol vypocet zruseny
+     * @param g instancia grafu
+     * @param planetName nazov vrcholu, pre ktory hlada komponent
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return zoznam vrcholov tvoriacich komponent pre zadany vrchol
+     */
+    public static List<Planet> findComponent(Graph g, String planetName, ProgressMonitor monitor) {
 
-        Planet planet = findPlanet(g, planetName);
+        Planet planet = g.getPlanet(planetName);
 
         if (planet == null) { // nenastane
             return new ArrayList<>();
         }
 
-        List<Planet> result = new ArrayList<>();
-        Set<Planet> visited = new HashSet<>();
-        Stack<Planet> frontier = new Stack<>();
-
-        frontier.add(planet);
+        CompactGraph view = g.getCompactView();
+        boolean[] visited = new boolean[view.size()];
+        int[] frontier = new int[view.size()];
+        int size = markComponent(view, planet.getId(), visited, frontier, monitor);
+        return toPlanets(g, Arrays.copyOf(frontier, size));
+    }
 
-        while (!frontier.isEmpty()) {
-            Planet node1 = frontier.pop();
-            if (!visited.contains(node1)) {
-                visited.add(node1);
-                result.add(node1);
-                for (Planet node2: node1.getNeighbours()) {
-                    if (!visited.contains(node2)) {
-                        frontier.add(node2);
-                    }
-                }
-            }
-        }
-        return result;
+    /**
+     * Pomocou algoritmu DFS najde pre zadany vrchol jeho komponent v CSR pohlade na graf
+     * @param g CSR pohlad na graf
+     * @param planet identifikator vrcholu, pre ktory hlada komponent
+     * @return identifikatory vrcholov tvoriacich komponent
+     */
+    public static int[] findComponent(CompactGraph g, int planet) {
+        boolean[] visited = new boolean[g.size()];
+        int[] frontier = new int[g.size()];
+        int size = markComponent(g, planet, visited, frontier, ProgressMonitor.NONE);
+        return Arrays.copyOf(frontier, size);
     }
 
     /**
-     * Funkcia vypocita celkovy pocet komponentov v grafe
+     * Funkcia vrati celkovy pocet komponentov v grafe (zo struktury komponentov grafu)
      * @param g instancia grafu
      * @return celkovy pocet komponentov
      */
     public static int numberOfComponents(Graph g) {
+        return g.getConnectivity().getComponentCount();
+    }
 
-        Set<Planet> visited = new HashSet<>();
+    /**
+     * Funkcia vypocita celkovy pocet komponentov v CSR pohlade na graf
+     * @param g CSR pohlad na graf
+     * @return celkovy pocet komponentov
+     */
+    public static int numberOfComponents(CompactGraph g) {
+        boolean[] visited = new boolean[g.size()];
+        int[] frontier = new int[g.size()];
         int result = 0;
-        for (Planet planet: g.getPlanets()) {
-            if (!visited.contains(planet)) {
-                visited.add(planet);
-                visited.addAll(findComponent(g, planet.getData()));
+        for (int v = 0; v < g.size(); v++) {
+            if (!visited[v]) {
+                markComponent(g, v, visited, frontier, ProgressMonitor.NONE);
                 result += 1;
             }
         }
@@ -112,14 +395,111 @@ public class Algorithms {
      * @return zoznam vsetkych komponentov (zoznamov vrcholov) grafu
      */
     public static List<List<Planet>> allComponents(Graph g) {
+        int[] labels = componentLabels(g);
         List<List<Planet>> result = new ArrayList<>();
-        Set<Planet> visited = new HashSet<>();
         for (Planet planet: g.getPlanets()) {
-            if (!visited.contains(planet)) {
-                visited.add(planet);
-                List<Planet> component = findComponent(g, planet.getData());
-                visited.addAll(component);
-                result.add(component);
+            int label = labels[planet.getId()];
+            if (label == result.size()) { // komponenty su cislovane podla najmensieho vrcholu
+                result.add(new ArrayList<>());
+            }
+            result.get(label).add(planet);
+        }
+        return result;
+    }
+
+    /**
+     * Paralelne oznaci kazdy vrchol grafu cislom jeho komponentu
+     * @param g instancia grafu
+     * @return pole cisel komponentov indexovane identifikatormi vrcholov
+     */
+    public static int[] componentLabels(Graph g) {
+        return componentLabels(g, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Paralelne oznaci kazdy vrchol grafu cislom jeho komponentu, priebeh hlasi po blokoch vrcholov
+     * a skonci vynimkou CancellationException, ak bol vypocet zruseny
+     * @param g instancia grafu
+     * @param monitor priebeh a zrusenie vypoctu
+     * @return pole cisel komponentov indexovane identifikatormi vrcholov
+     */
+    public static int[] componentLabels(Graph g, ProgressMonitor monitor) {
+        return componentLabels(g.getCompactView(), monitor);
+    }
+
+    /**
+     * Paralelne oznaci kazdy vrchol CSR pohladu na graf cislom jeho komponentu.
+     * Spoje sa spracuju v blokoch vrcholov sucasne vo vsetkych vlaknach ForkJoinPool-u, v ktorom
+     * metoda bezi (standardne spolocny pool), nad spolocnou strukturou union-find bez zamkov:
+     * koren s vacsim identifikatorom sa atomicky (CAS) pripoji pod koren s mensim.
+     * Korenom kazdeho komponentu je tak jeho najmensi vrchol a komponenty su cislovane 0, 1, ...
+     * v poradi svojich najmensich vrcholov
+     * @param g CSR pohlad na graf
+     * @return pole cisel komponentov indexovane identifikatormi vrcholov
+     */
+    public static int[] componentLabels(CompactGraph g) {
+        return componentLabels(g, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Paralelne oznaci kazdy vrchol CSR pohladu na graf cislom jeho komponentu (ako componentLabels(CompactGraph)),
+     * po kazdom bloku vrcholov hlasi priebeh a zistuje zrusenie
+     * @param g CSR pohlad na graf
+     * @param monitor priebeh a zrusenie vypoctu, volany sucasne z viacerych vlakien
+     * @return pole cisel komponentov indexovane identifikatormi vrcholov
+     */
+    public static int[] componentLabels(CompactGraph g, ProgressMonitor monitor) {
+        int n = g.size();
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int blocks = (n + LABEL_BLOCK - 1) / LABEL_BLOCK;
+        AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        int[] labels = new int[n];
+        AtomicInteger doneBlocks = new AtomicInteger();
+
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            for (int v = block * LABEL_BLOCK; v < Math.min(n, (block + 1) * LABEL_BLOCK); v++) {
+                parents.set(v, v);
+            }
+        });
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            report(monitor, doneBlocks.getAndIncrement(), blocks);
+            for (int v = block * LABEL_BLOCK; v < Math.min(n, (block + 1) * LABEL_BLOCK); v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    if (targets[i] > v) { // kazdy neorientovany spoj staci spracovat raz
+                        unite(parents, v, targets[i]);
+                    }
+                }
+            }
+        });
+        monitor.checkCancelled();
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            for (int v = block * LABEL_BLOCK; v < Math.min(n, (block + 1) * LABEL_BLOCK); v++) {
+                labels[v] = findRoot(parents, v);
+            }
+        });
+
+        // koren je najmensi vrchol komponentu, preto je pri prechode zlava uz precislovany
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            labels[v] = labels[v] == v ? count++ : labels[labels[v]];
+        }
+        return labels;
+    }
+
+    /**
+     * Funkcia vyrobi zoznam vsetkych komponentov CSR pohladu na graf
+     * @param g CSR pohlad na graf
+     * @return zoznam poli identifikatorov vrcholov jednotlivych komponentov
+     */
+    public static List<int[]> allComponents(CompactGraph g) {
+        List<int[]> result = new ArrayList<>();
+        boolean[] visited = new boolean[g.size()];
+        int[] frontier = new int[g.size()];
+        for (int v = 0; v < g.size(); v++) {
+            if (!visited[v]) {
+                int size = markComponent(g, v, visited, frontier, ProgressMonitor.NONE);
+                result.add(Arrays.copyOf(frontier, size));
             }
         }
         return result;
@@ -131,44 +511,157 @@ public class Algorithms {
      * @return true, ak vsetky vrcholy grafu tvoria jeden komponent, inak false
      */
     public static boolean isConnected(Graph g) {
+        return g.getConnectivity().getComponentCount() <= 1;
+    }
 
-        Planet planet = findPlanet(g, g.getPlanets().get(0).getData());
+    /**
+     * Funkcia zisti, ci je CSR pohlad na graf spojity
+     * @param g CSR pohlad na graf
+     * @return true, ak vsetky vrcholy grafu tvoria jeden komponent, inak false
+     */
+    public static boolean isConnected(CompactGraph g) {
+        return g.size() == 0 || findComponent(g, 0).length == g.size();
+    }
 
-        if (planet == null) { // nenastane
+    /**
+     * Funkcia zisti, ci su dva vrcholy v tom istom komponente grafu
+     * @param g instancia grafu
+     * @param planetName1 nazov prveho vrcholu
+     * @param planetName2 nazov druheho vrcholu
+     * @return true, ak medzi vrcholmi existuje cesta, inak false
+     */
+    public static boolean sameComponent(Graph g, String planetName1, String planetName2) {
+        Planet planet1 = g.getPlanet(planetName1);
+        Planet planet2 = g.getPlanet(planetName2);
+        if (planet1 == null || planet2 == null) {
             return false;
         }
+        return g.getConnectivity().sameComponent(planet1.getId(), planet2.getId());
+    }
 
-        Set<Planet> visited = new HashSet<>();
-        Stack<Planet> frontier = new Stack<>();
-
-        frontier.add(planet);
-
-        while (!frontier.isEmpty()) {
-            Planet node1 = frontier.pop();
-            if (!visited.contains(node1)) {
-                visited.add(node1);
-                for (Planet node2: node1.getNeighbours()) {
-                    if (!visited.contains(node2)) {
-                        frontier.add(node2);
-                    }
-                }
-            }
+    /**
+     * Funkcia vrati velkost komponentu, do ktoreho patri zadany vrchol
+     * @param g instancia grafu
+     * @param planetName nazov vrcholu
+     * @return pocet vrcholov komponentu, 0 ak vrchol v grafe nie je
+     */
+    public static int componentSize(Graph g, String planetName) {
+        Planet planet = g.getPlanet(planetName);
+        if (planet == null) {
+            return 0;
         }
-        return visited.size() == g.getPlanets().size();
+        return g.getConnectivity().componentSize(planet.getId());
     }
 
     /**
-     * Podla zadaneho mena najde jeho prislusnu instanciu v grafe
+     * Podla zadaneho mena najde jeho prislusnu instanciu v grafe (pomocou indexu grafu)
      * @param g instancia grafu
      * @param name meno hladaneho vrcholu
      * @return instancia vrcholu (Planet)
      */
     public static Planet findPlanet(Graph g, String name) {
-        for (Planet planet: g.getPlanets()) {
-            if (planet.getData().equals(name)) {
-                return planet;
+        return g.getPlanet(name);
+    }
+
+    /**
+     * Prejde algoritmom DFS komponent zadaneho vrcholu a oznaci jeho vrcholy ako navstivene.
+     * Navstivene vrcholy zapise v poradi navstivenia na zaciatok pola frontier
+     * @return pocet vrcholov komponentu
+     */
+    private static int markComponent(CompactGraph g, int planet, boolean[] visited, int[] frontier, ProgressMonitor monitor) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        // frontier[0, done) su spracovane vrcholy, zasobnik rastie od konca pola
+        int done = 0;
+        int top = frontier.length;
+        frontier[--top] = planet;
+        visited[planet] = true;
+        while (top < frontier.length) {
+            int node1 = frontier[top++];
+            frontier[done++] = node1;
+            if (done % CHECK_INTERVAL == 0) {
+                report(monitor, done, g.size());
+            }
+            for (int i = offsets[node1]; i < offsets[node1 + 1]; i++) {
+                int node2 = targets[i];
+                if (!visited[node2]) {
+                    visited[node2] = true;
+                    frontier[--top] = node2;
+                }
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Nahlasi priebeh a ukonci vypocet, ak bol zruseny
+     */
+    private static void report(ProgressMonitor monitor, double done, double total) {
+        monitor.checkCancelled();
+        monitor.progress(done, total);
+    }
+
+    /**
+     * Spoji komponenty dvoch vrcholov v paralelnej strukture union-find
+     */
+    private static void unite(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            a = findRoot(parents, a);
+            b = findRoot(parents, b);
+            if (a == b) {
+                return;
+            }
+            if (a < b) {
+                int tmp = a;
+                a = b;
+                b = tmp;
+            }
+            if (parents.compareAndSet(a, a, b)) { // uspeje, len ak je a stale korenom
+                return;
+            }
+        }
+    }
+
+    /**
+     * Najde koren vrcholu v paralelnej strukture union-find a cestou skracuje odkazy na prarodica
+     */
+    private static int findRoot(AtomicIntegerArray parents, int v) {
+        while (true) {
+            int parent = parents.get(v);
+            if (parent == v) {
+                return v;
+            }
+            int grandparent = parents.get(parent);
+            if (parent != grandparent) {
+                parents.compareAndSet(v, parent, grandparent);
             }
+            v = parent;
+        }
+    }
+
+    /**
+     * Spoji cestu zo startu do vrcholu node1 (podla predchodcov v prednom prehladavani)
+     * s cestou z vrcholu node2 do ciela (podla predchodcov v spatnom prehladavani)
+     * @return identifikatory vrcholov celej cesty v poradi od startu
+     */
+    private static int[] joinPaths(TraversalContext forward, TraversalContext backward, int node1, int node2) {
+        int length1 = (int) forward.getDistance(node1) + 1;
+        int length2 = (int) backward.getDistance(node2) + 1;
+        int[] result = new int[length1 + length2];
+        for (int v = node1, i = length1 - 1; i >= 0; v = forward.getPredecessor(v), i--) {
+            result[i] = v;
         }
-        return null;
+        for (int v = node2, i = length1; i < result.length; v = backward.getPredecessor(v), i++) {
+            result[i] = v;
+        }
+        return result;
+    }
+
+    private static List<Planet> toPlanets(Graph g, int[] ids) {
+        List<Planet> result = new ArrayList<>(ids.length);
+        for (int id: ids) {
+            result.add(g.getPlanet(id));
+        }
+        return result;
     }
 }
@@ -0,0 +1,452 @@
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Jednoduche merania vykonu nacitavania grafov a grafovych algoritmov.
+ * Spusta sa samostatne (java Benchmark), vysledky vypisuje na standardny vystup.
+ */
+public class Benchmark {
+
+    private static final int[] PLANET_COUNTS = {5_000, 50_000, 500_000};
+    private static final int LOOKUPS = 10_000;
+    private static final int CONNECTIVITY_PLANETS = 500_000;
+    private static final int CONNECTIVITY_QUERIES = 1_000;
+    private static final int PATH_PLANETS = 50_000;
+    private static final int PATH_QUERIES = 1_000;
+    private static final int BIDIRECTIONAL_PLANETS = 200_000;
+    private static final int[] BIDIRECTIONAL_DEGREES = {3, 8, 16};
+    private static final int[] TABLE_PLANETS = {5_000, 20_000};
+    private static final int LABEL_PLANETS = 1_000_000;
+    private static final int PARSE_PLANETS = 300_000;
+    private static final int PARSE_LINKS = 700_000;
+    private static final int CACHE_QUERIES = 2_000;
+    private static final int CACHE_DISTINCT_PAIRS = 500;
+    private static final int[] CACHE_CAPACITIES = {64, 256, 1024};
+
+    public static void main(String[] args) throws Exception {
+        File dir = Files.createTempDirectory("spacegraph-bench").toFile();
+        dir.deleteOnExit();
+        benchmarkParsing(dir);
+        benchmarkLoading(dir);
+        benchmarkConnectivity(dir);
+        benchmarkPathQueries(dir);
+        benchmarkBidirectional(dir);
+        benchmarkDistanceTable(dir);
+        benchmarkComponentLabels(dir);
+        benchmarkQueryCache(dir);
+    }
+
+    /**
+     * Porovna citanie suboru s milionom riadkov cez GraphFileParser s povodnym citanim
+     * cez Scanner a String.split (loadGraphWithScanner) a s citanim toho isteho grafu z binarneho formatu
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkParsing(File dir) throws IOException {
+        File file = new File(dir, "parse" + (PARSE_PLANETS + PARSE_LINKS) + ".txt");
+        writeSyntheticGraph(file, PARSE_PLANETS, PARSE_LINKS, 47);
+        file.deleteOnExit();
+
+        System.out.println("parser;lines;planets;links;ms");
+        for (int round = 0; round < 3; round++) { // prve kolo sluzi ako zahriatie JIT
+            Graph graph = new Graph();
+            long start = System.nanoTime();
+            loadGraphWithScanner(file, graph);
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Scanner;" + (PARSE_PLANETS + PARSE_LINKS) + ";" + graph.getPlanets().size() + ";"
+                    + graph.getLinks().size() + ";" + ms);
+
+            graph = new Graph();
+            start = System.nanoTime();
+            GraphFileParser.parse(file, graph);
+            ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("GraphFileParser;" + (PARSE_PLANETS + PARSE_LINKS) + ";" + graph.getPlanets().size() + ";"
+                    + graph.getLinks().size() + ";" + ms);
+
+            File binary = new File(dir, "parse" + (PARSE_PLANETS + PARSE_LINKS) + GraphBinaryFile.EXTENSION);
+            binary.deleteOnExit();
+            graph.exportBinary(binary);
+            graph = new Graph();
+            start = System.nanoTime();
+            GraphBinaryFile.read(binary, graph);
+            ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("GraphBinaryFile;" + (PARSE_PLANETS + PARSE_LINKS) + ";" + graph.getPlanets().size() + ";"
+                    + graph.getLinks().size() + ";" + ms);
+        }
+    }
+
+    /**
+     * Zmeria cas nacitania syntetickych grafov roznej velkosti
+     * a porovna vyhladavanie vrcholov cez index s linearnym prechodom zoznamu vrcholov
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkLoading(File dir) throws IOException {
+        System.out.println("planets;links;load ms;indexed lookup ns;linear lookup ns");
+        for (int planetCount: PLANET_COUNTS) {
+            File file = new File(dir, "synthetic" + planetCount + ".txt");
+            writeSyntheticGraph(file, planetCount, planetCount * 2, 42);
+            file.deleteOnExit();
+
+            long start = System.nanoTime();
+            Graph graph = new Graph(file);
+            long loadMs = (System.nanoTime() - start) / 1_000_000;
+
+            String[] names = new String[LOOKUPS];
+            Random rnd = new Random(7);
+            for (int i = 0; i < LOOKUPS; i++) {
+                names[i] = graph.getPlanets().get(rnd.nextInt(planetCount)).getData();
+            }
+
+            start = System.nanoTime();
+            for (String name: names) {
+                blackhole(graph.getPlanet(name));
+            }
+            long indexedNs = (System.nanoTime() - start) / LOOKUPS;
+
+            start = System.nanoTime();
+            for (String name: names) {
+                blackhole(linearFind(graph, name));
+            }
+            long linearNs = (System.nanoTime() - start) / LOOKUPS;
+
+            System.out.println(planetCount + ";" + graph.getLinks().size() + ";" + loadMs + ";" + indexedNs + ";" + linearNs);
+        }
+    }
+
+    /**
+     * Porovna otazky na komponenty cez strukturu union-find (Graph.getConnectivity())
+     * s vypoctom pomocou DFS nad CSR pohladom na graf
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkConnectivity(File dir) throws IOException {
+        File file = new File(dir, "components" + CONNECTIVITY_PLANETS + ".txt");
+        writeSyntheticGraph(file, CONNECTIVITY_PLANETS, CONNECTIVITY_PLANETS / 2, 43); // vela komponentov
+        file.deleteOnExit();
+        Graph graph = new Graph(file);
+        CompactGraph compact = graph.getCompactView();
+        int n = graph.getPlanets().size();
+
+        int[] pairs = new int[CONNECTIVITY_QUERIES * 2];
+        Random rnd = new Random(11);
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = rnd.nextInt(n);
+        }
+
+        System.out.println("query;union-find ns;DFS ns");
+        for (int round = 0; round < 3; round++) { // prve kolo sluzi ako zahriatie JIT
+            long start = System.nanoTime();
+            int count = graph.getConnectivity().getComponentCount();
+            long unionFindNs = System.nanoTime() - start;
+            start = System.nanoTime();
+            int dfsCount = Algorithms.numberOfComponents(compact);
+            long dfsNs = System.nanoTime() - start;
+            if (count != dfsCount) {
+                throw new IllegalStateException("component counts differ: " + count + " != " + dfsCount);
+            }
+            System.out.println("numberOfComponents;" + unionFindNs + ";" + dfsNs);
+
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(graph.getConnectivity().sameComponent(pairs[i], pairs[i + 1]));
+            }
+            unionFindNs = (System.nanoTime() - start) / CONNECTIVITY_QUERIES;
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(contains(Algorithms.findComponent(compact, pairs[i]), pairs[i + 1]));
+            }
+            dfsNs = (System.nanoTime() - start) / CONNECTIVITY_QUERIES;
+            System.out.println("sameComponent;" + unionFindNs + ";" + dfsNs);
+        }
+    }
+
+    /**
+     * Zmeria priemerny cas a alokovanu pamat na jeden dotaz na najkratsiu cestu (BFS aj A*)
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkPathQueries(File dir) throws IOException {
+        File file = new File(dir, "paths" + PATH_PLANETS + ".txt");
+        writeSyntheticGraph(file, PATH_PLANETS, PATH_PLANETS * 2, 44);
+        file.deleteOnExit();
+        Graph graph = new Graph(file);
+        CompactGraph compact = graph.getCompactView();
+
+        int[] pairs = new int[PATH_QUERIES * 2];
+        Random rnd = new Random(13);
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = rnd.nextInt(compact.size());
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        System.out.println("query;ns per query;bytes per query");
+        for (int round = 0; round < 3; round++) { // prve kolo sluzi ako zahriatie JIT
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(Algorithms.shortestPath(compact, pairs[i], pairs[i + 1]));
+            }
+            long ns = (System.nanoTime() - start) / PATH_QUERIES;
+            bytes = (threads.getThreadAllocatedBytes(thread) - bytes) / PATH_QUERIES;
+            System.out.println("shortestPath;" + ns + ";" + bytes);
+
+            bytes = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(Algorithms.shortestRoute(compact, pairs[i], pairs[i + 1]));
+            }
+            ns = (System.nanoTime() - start) / PATH_QUERIES;
+            bytes = (threads.getThreadAllocatedBytes(thread) - bytes) / PATH_QUERIES;
+            System.out.println("shortestRoute;" + ns + ";" + bytes);
+        }
+    }
+
+    /**
+     * Porovna jednosmerne a obojsmerne BFS podla priemerneho poctu navstivenych vrcholov
+     * a casu na dotaz, pre grafy s roznou hustotou spojov
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkBidirectional(File dir) throws IOException {
+        System.out.println("average degree;BFS visited;BFS ns;bidirectional visited;bidirectional ns");
+        for (int degree: BIDIRECTIONAL_DEGREES) {
+            File file = new File(dir, "bidirectional" + degree + ".txt");
+            writeSyntheticGraph(file, BIDIRECTIONAL_PLANETS, BIDIRECTIONAL_PLANETS * degree / 2, 45);
+            file.deleteOnExit();
+            CompactGraph compact = new Graph(file).getCompactView();
+            TraversalContext context = TraversalContext.forCurrentThread();
+
+            int[] pairs = new int[PATH_QUERIES * 2];
+            Random rnd = new Random(17);
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = rnd.nextInt(compact.size());
+            }
+
+            long visited = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(Algorithms.shortestPath(compact, pairs[i], pairs[i + 1], context));
+                visited += context.getVisitCount();
+            }
+            long bfsNs = (System.nanoTime() - start) / PATH_QUERIES;
+            long bfsVisited = visited / PATH_QUERIES;
+
+            visited = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(Algorithms.shortestPathBidirectional(compact, pairs[i], pairs[i + 1], context));
+                visited += context.getVisitCount() + context.getReverse().getVisitCount();
+            }
+            long bidirectionalNs = (System.nanoTime() - start) / PATH_QUERIES;
+            long bidirectionalVisited = visited / PATH_QUERIES;
+
+            System.out.println(degree + ";" + bfsVisited + ";" + bfsNs + ";" + bidirectionalVisited + ";" + bidirectionalNs);
+        }
+    }
+
+    /**
+     * Zmeria cas paralelneho vypoctu tabulky najkratsich ciest a porovna citanie cesty
+     * z tabulky s obojsmernym BFS
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkDistanceTable(File dir) throws IOException {
+        System.out.println("planets;table build ms;table lookup ns;bidirectional ns");
+        for (int planetCount: TABLE_PLANETS) {
+            File file = new File(dir, "table" + planetCount + ".txt");
+            writeSyntheticGraph(file, planetCount, planetCount * 2, 46);
+            file.deleteOnExit();
+            CompactGraph compact = new Graph(file).getCompactView();
+            if (!DistanceTable.fits(planetCount)) {
+                System.out.println(planetCount + ";does not fit into memory;;");
+                continue;
+            }
+
+            long start = System.nanoTime();
+            DistanceTable table = DistanceTable.build(compact);
+            long buildMs = (System.nanoTime() - start) / 1_000_000;
+
+            int[] pairs = new int[PATH_QUERIES * 2];
+            Random rnd = new Random(19);
+            for (int i = 0; i < pairs.length; i++) {
+                pairs[i] = rnd.nextInt(compact.size());
+            }
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(table.path(pairs[i], pairs[i + 1]));
+            }
+            long tableNs = (System.nanoTime() - start) / PATH_QUERIES;
+            start = System.nanoTime();
+            for (int i = 0; i < pairs.length; i += 2) {
+                blackhole(Algorithms.shortestPathBidirectional(compact, pairs[i], pairs[i + 1]));
+            }
+            long bidirectionalNs = (System.nanoTime() - start) / PATH_QUERIES;
+            System.out.println(planetCount + ";" + buildMs + ";" + tableNs + ";" + bidirectionalNs);
+        }
+    }
+
+    /**
+     * Porovna sekvencne DFS hladanie komponentov s paralelnym oznacovanim komponentov
+     * pri roznom pocte vlakien
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkComponentLabels(File dir) throws Exception {
+        File file = new File(dir, "labels" + LABEL_PLANETS + ".txt");
+        writeSyntheticGraph(file, LABEL_PLANETS, LABEL_PLANETS * 2, 47);
+        file.deleteOnExit();
+        CompactGraph compact = new Graph(file).getCompactView();
+
+        System.out.println("threads;components ms;speedup over sequential DFS");
+        long dfsNs = Long.MAX_VALUE;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            blackhole(Algorithms.allComponents(compact));
+            dfsNs = Math.min(dfsNs, System.nanoTime() - start);
+        }
+        System.out.println("DFS;" + dfsNs / 1_000_000 + ";1.0");
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads = threads == cores ? cores + 1 : Math.min(threads * 2, cores)) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            long labelNs = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                blackhole(pool.submit(() -> Algorithms.componentLabels(compact)).get());
+                labelNs = Math.min(labelNs, System.nanoTime() - start);
+            }
+            pool.shutdown();
+            System.out.println(threads + ";" + labelNs / 1_000_000 + ";" + String.format("%.1f", (double) dfsNs / labelNs));
+        }
+    }
+
+    /**
+     * Zmeria uspesnost a prinos vyrovnavacej pamate dotazov (QueryCache) roznej velkosti
+     * pri opakovanych dotazoch, kde sa niektore dvojice vrcholov opakuju casto a ine zriedka
+     * @param dir docasny priecinok pre vygenerovane subory
+     */
+    private static void benchmarkQueryCache(File dir) throws IOException {
+        File file = new File(dir, "cache" + PATH_PLANETS + ".txt");
+        writeSyntheticGraph(file, PATH_PLANETS, PATH_PLANETS * 2, 46);
+        file.deleteOnExit();
+        Graph graph = new Graph(file);
+
+        Random rnd = new Random(17);
+        String[] names = new String[CACHE_DISTINCT_PAIRS * 2];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = graph.getPlanet(rnd.nextInt(PATH_PLANETS)).getData();
+        }
+        int[] workload = new int[CACHE_QUERIES];
+        for (int i = 0; i < workload.length; i++) {
+            double skew = rnd.nextDouble();
+            workload[i] = (int) (skew * skew * skew * CACHE_DISTINCT_PAIRS); // male indexy su caste
+        }
+
+        long start = System.nanoTime();
+        for (int pair: workload) {
+            blackhole(Algorithms.shortestRoute(graph, names[pair * 2], names[pair * 2 + 1]));
+        }
+        System.out.println("cache capacity;hits;misses;total ms");
+        System.out.println("none;0;" + CACHE_QUERIES + ";" + (System.nanoTime() - start) / 1_000_000);
+
+        for (int capacity: CACHE_CAPACITIES) {
+            QueryCache cache = new QueryCache(capacity);
+            start = System.nanoTime();
+            for (int pair: workload) {
+                blackhole(cache.shortestRoute(graph, names[pair * 2], names[pair * 2 + 1]));
+            }
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            System.out.println(capacity + ";" + cache.getHits() + ";" + cache.getMisses() + ";" + ms);
+        }
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v: values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Povodne vyhladavanie vrcholu linearnym prechodom, ponechane len na porovnanie
+     */
+    private static Planet linearFind(Graph g, String name) {
+        for (Planet planet: g.getPlanets()) {
+            if (planet.getData().equals(name)) {
+                return planet;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Zapise nahodny graf v textovom formate pomocou GraphGenerator
+     * @param file vystupny subor
+     * @param planetCount pocet vrcholov
+     * @param linkCount pocet spojov
+     * @param seed seed generatora nahodnych cisel
+     */
+    private static void writeSyntheticGraph(File file, int planetCount, int linkCount, long seed) throws IOException {
+        new GraphGenerator()
+                .setSeed(seed)
+                .setPlanetCount(planetCount)
+                .setAverageDegree(2.0 * linkCount / planetCount)
+                .writeText(file);
+    }
+
+    /**
+     * Povodne citanie textoveho formatu cez Scanner a String.split, sluzi ako porovnanie pre GraphFileParser
+     * @param file vstupny textovy subor
+     * @param g instancia grafu
+     */
+    private static void loadGraphWithScanner(File file, Graph g) throws IOException {
+        try (Scanner scanner = new Scanner(file)) {
+            String[] data;
+            String name, from, to, product;
+            Color color;
+            double x, y, z, radius;
+            int textureIndex;
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                if (line.equals("#####")) {
+                    break;
+                }
+                data = line.split("\\|");
+                name = data[0];
+                x = Double.parseDouble(data[1]);
+                y = Double.parseDouble(data[2]);
+                z = Double.parseDouble(data[3]);
+                radius = Double.parseDouble(data[4]);
+                color = Color.web(data[5]);
+                textureIndex = Integer.parseInt(data[6]);
+                Planet newPlanet = new Planet(name, new Point3D(x, y, z), radius, textureIndex, color);
+                g.insertPlanet(newPlanet);
+            }
+            while (scanner.hasNextLine()) {
+                String line = scanner.nextLine();
+                data = line.split("\\|");
+                from = data[0];
+                to = data[1];
+                product = data[2];
+                Planet planetFrom = g.getPlanet(from);
+                Planet planetTo = g.getPlanet(to);
+                if (planetFrom != null && planetTo != null) {
+                    planetFrom.addNeigbour(planetTo);
+                    planetTo.addNeigbour(planetFrom);
+                    g.insertLink(new Link(planetFrom, planetTo, product));
+                }
+            }
+        }
+    }
+
+    private static volatile Object sink;
+
+    private static void blackhole(Object value) {
+        sink = value;
+    }
+}
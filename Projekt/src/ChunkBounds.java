@@ -0,0 +1,45 @@
+/**
+ * Ohranicujuci kvader casti spolocnej siete (LinkMesh, PlanetMesh), rastie s kazdym pridanym objektom.
+ * Pouziva sa na orezavanie celej siete podla pohladu kamery.
+ */
+class ChunkBounds {
+
+    private double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+    private double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+    private double maxRadius;
+
+    /**
+     * Rozsiri kvader tak, aby obsahoval gulu
+     */
+    void add(double x, double y, double z, double radius) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        minZ = Math.min(minZ, z);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+        maxZ = Math.max(maxZ, z);
+        maxRadius = Math.max(maxRadius, radius);
+    }
+
+    /**
+     * Vrati kvader do prazdneho stavu, napr. pred novym rozdelenim objektov do sieti
+     */
+    void clear() {
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+        maxRadius = 0;
+    }
+
+    /**
+     * @param projector premietanie z aktualneho pohladu kamery
+     * @return false, ak je cely kvader urcite mimo zorneho pola
+     */
+    boolean isVisible(ViewProjector projector) {
+        if (minX > maxX) {
+            return false;
+        }
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return projector.isVisible((minX + maxX) / 2, (minY + maxY) / 2, (minZ + maxZ) / 2,
+                Math.sqrt(dx * dx + dy * dy + dz * dz) / 2 + maxRadius);
+    }
+}
@@ -0,0 +1,144 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kompaktny pohlad na strukturu grafu vo formate CSR (compressed sparse row).
+ * Vrcholy su reprezentovane svojimi identifikatormi (Planet.getId()), susedia vrcholu v
+ * su ulozeni v poli targets na poziciach offsets[v] az offsets[v + 1] - 1,
+ * na rovnakych poziciach v poli weights su dlzky prislusnych spojov.
+ * Pohlad sa nemeni, pri zmene grafu si ho Graph vytvori nanovo.
+ */
+public class CompactGraph {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final double[] coords;
+
+    private CompactGraph(int[] offsets, int[] targets, double[] weights, double[] coords) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.coords = coords;
+    }
+
+    /**
+     * Vytvori CSR pohlad zo zoznamu spojov grafu. Spoje su neorientovane, kazdy sused
+     * je v zozname susedov vrcholu prave raz (rovnako ako v Planet.getNeighbours())
+     * @param planets zoznam vrcholov grafu (v poradi ich identifikatorov)
+     * @param links zoznam spojov grafu
+     * @return instancia CSR pohladu
+     */
+    public static CompactGraph build(List<Planet> planets, List<Link> links) {
+        int planetCount = planets.size();
+        double[] coords = new double[planetCount * 3];
+        for (Planet planet: planets) {
+            coords[planet.getId() * 3] = planet.getX();
+            coords[planet.getId() * 3 + 1] = planet.getY();
+            coords[planet.getId() * 3 + 2] = planet.getZ();
+        }
+
+        int[] degrees = new int[planetCount + 1];
+        for (Link link: links) {
+            degrees[link.getFrom().getId()]++;
+            degrees[link.getTo().getId()]++;
+        }
+        int[] offsets = new int[planetCount + 1];
+        for (int v = 0; v < planetCount; v++) {
+            offsets[v + 1] = offsets[v] + degrees[v];
+        }
+        // sused a poradie spoja v jednom cisle, po zoradeni su susedia vzostupne a dlzka sa berie zo spoja (Link.getLength())
+        int[] fill = Arrays.copyOf(offsets, planetCount);
+        long[] entries = new long[offsets[planetCount]];
+        for (int i = 0; i < links.size(); i++) {
+            int from = links.get(i).getFrom().getId();
+            int to = links.get(i).getTo().getId();
+            entries[fill[from]++] = (long) to << 32 | i;
+            entries[fill[to]++] = (long) from << 32 | i;
+        }
+
+        // odstranenie duplicitnych susedov (viacnasobne spoje, slucky)
+        int[] targets = new int[entries.length];
+        double[] weights = new double[entries.length];
+        int write = 0;
+        int rowStart = 0;
+        for (int v = 0; v < planetCount; v++) {
+            int rowEnd = offsets[v + 1];
+            Arrays.sort(entries, rowStart, rowEnd);
+            offsets[v] = write;
+            for (int i = rowStart; i < rowEnd; i++) {
+                int target = (int) (entries[i] >>> 32);
+                if (i == rowStart || target != (int) (entries[i - 1] >>> 32)) {
+                    targets[write] = target;
+                    // dlzka spoja zavisi len od jeho koncovych vrcholov, na vyber z duplicit nezalezi
+                    weights[write++] = links.get((int) entries[i]).getLength();
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[planetCount] = write;
+        if (write != targets.length) {
+            targets = Arrays.copyOf(targets, write);
+            weights = Arrays.copyOf(weights, write);
+        }
+        return new CompactGraph(offsets, targets, weights, coords);
+    }
+
+    /**
+     *
+     * @return pocet vrcholov
+     */
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    /**
+     *
+     * @param v identifikator vrcholu
+     * @return pocet susedov vrcholu
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     *
+     * @return pole zaciatkov zoznamov susedov, dlzky size() + 1
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     *
+     * @return pole identifikatorov susedov vsetkych vrcholov za sebou
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     *
+     * @return pole dlzok spojov, paralelne s polom getTargets()
+     */
+    public double[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Priama (vzdusna) vzdialenost dvoch vrcholov v priestore
+     * @param a identifikator prveho vrcholu
+     * @param b identifikator druheho vrcholu
+     * @return euklidovska vzdialenost vrcholov
+     */
+    public double distance(int a, int b) {
+        return distance(coords, a, b);
+    }
+
+    private static double distance(double[] coords, int a, int b) {
+        double dx = coords[a * 3] - coords[b * 3];
+        double dy = coords[a * 3 + 1] - coords[b * 3 + 1];
+        double dz = coords[a * 3 + 2] - coords[b * 3 + 2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+}
@@ -0,0 +1,107 @@
+import java.util.Arrays;
+
+/**
+ * Inkrementalna struktura komponentov grafu (union-find so spajanim podla velkosti
+ * a skracovanim ciest). Vrcholy su identifikovane svojimi identifikatormi (Planet.getId()).
+ * Graph ju plni pri vkladani vrcholov a spojov, otazky na komponenty su takmer v konstantnom case.
+ */
+public class Connectivity {
+
+    private int[] parent;
+    private int[] size;
+    private int planetCount;
+    private int componentCount;
+
+    public Connectivity() {
+        parent = new int[16];
+        size = new int[16];
+    }
+
+    /**
+     * Prida novy vrchol ako samostatny komponent
+     * @return identifikator pridaneho vrcholu
+     */
+    public synchronized int addPlanet() {
+        if (planetCount == parent.length) {
+            parent = Arrays.copyOf(parent, planetCount * 2);
+            size = Arrays.copyOf(size, planetCount * 2);
+        }
+        parent[planetCount] = planetCount;
+        size[planetCount] = 1;
+        componentCount++;
+        return planetCount++;
+    }
+
+    /**
+     * Zaznamena spoj medzi dvoma vrcholmi, t.j. spoji ich komponenty
+     * @param a identifikator prveho vrcholu
+     * @param b identifikator druheho vrcholu
+     */
+    public synchronized void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        componentCount--;
+    }
+
+    /**
+     *
+     * @param planet identifikator vrcholu
+     * @return identifikator reprezentanta komponentu, do ktoreho vrchol patri
+     */
+    public synchronized int componentOf(int planet) {
+        return find(planet);
+    }
+
+    /**
+     *
+     * @param a identifikator prveho vrcholu
+     * @param b identifikator druheho vrcholu
+     * @return true, ak vrcholy patria do toho isteho komponentu
+     */
+    public synchronized boolean sameComponent(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     *
+     * @param planet identifikator vrcholu
+     * @return pocet vrcholov komponentu, do ktoreho vrchol patri
+     */
+    public synchronized int componentSize(int planet) {
+        return size[find(planet)];
+    }
+
+    /**
+     *
+     * @return celkovy pocet komponentov
+     */
+    public synchronized int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     *
+     * @return pocet vrcholov
+     */
+    public synchronized int getPlanetCount() {
+        return planetCount;
+    }
+
+    private int find(int planet) {
+        while (parent[planet] != planet) {
+            parent[planet] = parent[parent[planet]]; // skracovanie cesty na polovicu
+            planet = parent[planet];
+        }
+        return planet;
+    }
+}
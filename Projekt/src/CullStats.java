@@ -0,0 +1,103 @@
+/**
+ * Vysledok posledneho orezavania objektov mimo zorneho pola kamery (diagnostika).
+ * Kazda dvojica pocitadiel ma vlastnu jednotku: planety, spolocne siete planet, siete spojov a siete tovarov.
+ */
+public class CullStats {
+
+    public static final CullStats EMPTY = new CullStats(0, 0, 0, 0, 0, 0, 0, 0);
+
+    private final int drawnPlanets;
+    private final int culledPlanets;
+    private final int drawnPlanetChunks;
+    private final int culledPlanetChunks;
+    private final int drawnLinkChunks;
+    private final int culledLinkChunks;
+    private final int drawnProductChunks;
+    private final int culledProductChunks;
+
+    /**
+     * @param view zobrazenie grafu po orezani (GraphView.cull)
+     * @param drawnProductChunks pocet zobrazenych sieti tovarov (TransportEngine.cull), 0 ak presun nebezi
+     * @param culledProductChunks pocet skrytych sieti tovarov
+     */
+    public CullStats(GraphView view, int drawnProductChunks, int culledProductChunks) {
+        this(view.getDrawnPlanets(), view.getCulledPlanets(), view.getDrawnPlanetChunks(), view.getCulledPlanetChunks(),
+                view.getDrawnLinkChunks(), view.getCulledLinkChunks(), drawnProductChunks, culledProductChunks);
+    }
+
+    private CullStats(int drawnPlanets, int culledPlanets, int drawnPlanetChunks, int culledPlanetChunks,
+                      int drawnLinkChunks, int culledLinkChunks, int drawnProductChunks, int culledProductChunks) {
+        this.drawnPlanets = drawnPlanets;
+        this.culledPlanets = culledPlanets;
+        this.drawnPlanetChunks = drawnPlanetChunks;
+        this.culledPlanetChunks = culledPlanetChunks;
+        this.drawnLinkChunks = drawnLinkChunks;
+        this.culledLinkChunks = culledLinkChunks;
+        this.drawnProductChunks = drawnProductChunks;
+        this.culledProductChunks = culledProductChunks;
+    }
+
+    /**
+     *
+     * @return pocet planet v zornom poli
+     */
+    public int getDrawnPlanets() {
+        return drawnPlanets;
+    }
+
+    /**
+     *
+     * @return pocet planet mimo zorneho pola
+     */
+    public int getCulledPlanets() {
+        return culledPlanets;
+    }
+
+    /**
+     *
+     * @return pocet zobrazenych spolocnych sieti planet (PlanetMesh)
+     */
+    public int getDrawnPlanetChunks() {
+        return drawnPlanetChunks;
+    }
+
+    /**
+     *
+     * @return pocet skrytych spolocnych sieti planet
+     */
+    public int getCulledPlanetChunks() {
+        return culledPlanetChunks;
+    }
+
+    /**
+     *
+     * @return pocet zobrazenych sieti spojov (LinkMesh)
+     */
+    public int getDrawnLinkChunks() {
+        return drawnLinkChunks;
+    }
+
+    /**
+     *
+     * @return pocet skrytych sieti spojov
+     */
+    public int getCulledLinkChunks() {
+        return culledLinkChunks;
+    }
+
+    /**
+     *
+     * @return pocet zobrazenych sieti tovarov (TransportEngine)
+     */
+    public int getDrawnProductChunks() {
+        return drawnProductChunks;
+    }
+
+    /**
+     *
+     * @return pocet skrytych sieti tovarov
+     */
+    public int getCulledProductChunks() {
+        return culledProductChunks;
+    }
+}
@@ -0,0 +1,192 @@
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Predpocitana tabulka vzdialenosti (v poctoch krokov) a nasledujucich vrcholov na najkratsej ceste
+ * medzi vsetkymi dvojicami vrcholov. Obe matice su 16-bitove (char) a kazda je jedno pole,
+ * preto je tabulka pouzitelna len pre grafy s najviac 46340 vrcholmi, ktorych tabulka sa zmesti do pamate.
+ * Vytvara sa paralelne, jedno BFS pre kazdy startovy vrchol. Na pozadi po nacitani grafu sa vytvara, len ak je zapnuta
+ * systemovou vlastnostou ENABLED_PROPERTY (-Dspacegraph.distanceTable=true) a graf je dost maly (shouldBuild).
+ */
+public class DistanceTable {
+
+    public static final String ENABLED_PROPERTY = "spacegraph.distanceTable";
+
+    private static final char NONE = Character.MAX_VALUE;
+    private static final int MAX_BACKGROUND_PLANETS = 8_192;
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+    private static final int SOURCES_PER_TASK = 32;
+    private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private final int size;
+    private final char[] distances;
+    private final char[] nextHops;
+
+    private DistanceTable(int size) {
+        this.size = size;
+        distances = new char[size * size];
+        nextHops = new char[size * size];
+    }
+
+    /**
+     * Zisti, ci je mozne vytvorit tabulku pre graf so zadanym poctom vrcholov,
+     * t.j. ci sa matica zmesti do jedneho pola a obe matice zaberu najviac polovicu pamate, ktora este nie je obsadena
+     * @param planetCount pocet vrcholov grafu
+     * @return true, ak sa tabulka moze vytvorit
+     */
+    public static boolean fits(int planetCount) {
+        long cells = (long) planetCount * planetCount;
+        return cells <= MAX_CELLS && 4 * cells <= availableMemory() / 2;
+    }
+
+    /**
+     * Zisti, ci sa ma tabulka vytvorit na pozadi po nacitani grafu: len ak je zapnuta (ENABLED_PROPERTY),
+     * graf ma najviac MAX_BACKGROUND_PLANETS vrcholov a obe matice zaberu najviac osminu neobsadenej pamate
+     * @param planetCount pocet vrcholov grafu
+     * @return true, ak sa tabulka ma vytvorit
+     */
+    public static boolean shouldBuild(int planetCount) {
+        long cells = (long) planetCount * planetCount;
+        return Boolean.getBoolean(ENABLED_PROPERTY) && planetCount <= MAX_BACKGROUND_PLANETS
+                && 4 * cells <= availableMemory() / 8;
+    }
+
+    private static long availableMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+    }
+
+    /**
+     * Na pozadi vytvori tabulku pre zadany CSR pohlad na graf
+     * @param g CSR pohlad na graf
+     * @return buduci vysledok, ktory sa da zrusit metodou cancel
+     */
+    public static CompletableFuture<DistanceTable> buildAsync(CompactGraph g) {
+        CompletableFuture<DistanceTable> result = new CompletableFuture<>();
+        POOL.execute(() -> {
+            try {
+                DistanceTable table = new DistanceTable(g.size());
+                POOL.invoke(new BuildTask(g, table, result, 0, g.size()));
+                result.complete(table);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Vytvori tabulku pre zadany CSR pohlad na graf v aktualnom vlakne (vypocet je paralelny)
+     * @param g CSR pohlad na graf
+     * @return hotova tabulka
+     */
+    public static DistanceTable build(CompactGraph g) {
+        DistanceTable table = new DistanceTable(g.size());
+        POOL.invoke(new BuildTask(g, table, new CompletableFuture<>(), 0, g.size()));
+        return table;
+    }
+
+    /**
+     *
+     * @return pocet vrcholov grafu, pre ktory bola tabulka vytvorena
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return pocet krokov najkratsej cesty, -1 ak cesta neexistuje
+     */
+    public int distance(int from, int to) {
+        char distance = distances[from * size + to];
+        return distance == NONE ? -1 : distance;
+    }
+
+    /**
+     * Zostavi najkratsiu cestu postupnym citanim nasledujucich vrcholov z tabulky
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return identifikatory vrcholov tvoriacich najkratsiu cestu, prazdne pole, ak cesta neexistuje
+     */
+    public int[] path(int from, int to) {
+        int distance = distance(from, to);
+        if (distance == -1) {
+            return new int[0];
+        }
+        int[] result = new int[distance + 1];
+        result[0] = from;
+        for (int i = 1; i <= distance; i++) {
+            result[i] = nextHops[result[i - 1] * size + to];
+        }
+        return result;
+    }
+
+    /**
+     * Vypocita BFS z jedneho startoveho vrcholu a zapise jeho riadok oboch matic.
+     * Nasledujuci vrchol na ceste do w je prvy krok cesty do predchodcu w
+     */
+    private void fillRow(CompactGraph g, int source, int[] queue) {
+        int[] offsets = g.getOffsets();
+        int[] targets = g.getTargets();
+        int row = source * size;
+        Arrays.fill(distances, row, row + size, NONE);
+        Arrays.fill(nextHops, row, row + size, NONE);
+        distances[row + source] = 0;
+        nextHops[row + source] = (char) source;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int node1 = queue[head++];
+            char distance = (char) (distances[row + node1] + 1);
+            for (int i = offsets[node1]; i < offsets[node1 + 1]; i++) {
+                int node2 = targets[i];
+                if (distances[row + node2] == NONE) {
+                    distances[row + node2] = distance;
+                    nextHops[row + node2] = node1 == source ? (char) node2 : nextHops[row + node1];
+                    queue[tail++] = node2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rekurzivne deli interval startovych vrcholov, kym nie je dost maly na sekvencny vypocet
+     */
+    private static class BuildTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CompactGraph g;
+        private final DistanceTable table;
+        private final CompletableFuture<DistanceTable> result;
+        private final int from;
+        private final int to;
+
+        BuildTask(CompactGraph g, DistanceTable table, CompletableFuture<DistanceTable> result, int from, int to) {
+            this.g = g;
+            this.table = table;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SOURCES_PER_TASK) {
+                int[] queue = new int[g.size()];
+                for (int source = from; source < to && !result.isDone(); source++) {
+                    table.fillRow(g, source, queue);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new BuildTask(g, table, result, from, middle), new BuildTask(g, table, result, middle, to));
+            }
+        }
+    }
+}
@@ -1,27 +1,75 @@
 import javafx.geometry.Point3D;
-import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Shape3D;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class Graph {
 
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private volatile long version = VERSIONS.incrementAndGet();
     private List<Planet> planets;
     private List<Link> links;
     private List<Product> products;
+    private Map<String, Planet> planetIndex;
+    private CompactGraph compactView;
+    private Connectivity connectivity;
+    private volatile DistanceTable distanceTable;
+    private CompletableFuture<DistanceTable> distanceTableTask;
     private File loadedFile;
+    private GraphLoadListener loadListener;
     private Map<String, Color> productNamesAndColors = new TreeMap<>();
 
-    public Graph(File file) {
+    /**
+     * Vytvori prazdny graf, vrcholy a spoje sa vkladaju metodami insertPlanet a insertLink
+     */
+    public Graph() {
         planets = new ArrayList<>();
         links = new ArrayList<>();
+        products = new ArrayList<>();
+        planetIndex = new HashMap<>();
+        connectivity = new Connectivity();
+    }
+
+    public Graph(File file) throws IOException {
+        this();
+        load(file);
+    }
+
+    /**
+     * Nacita do prazdneho grafu vrcholy a spoje zo suboru, pocas nacitavania ich oznamuje
+     * pozorovatelovi (ak je nastaveny)
+     * @param file vstupny subor (textovy alebo binarny)
+     * @throws IOException ak sa subor neda precitat alebo nema spravny format (GraphFormatException)
+     */
+    public void load(File file) throws IOException {
         Utils.loadGraphFromFile(file, this);
         loadProductNamesAndColors();
         products = loadProducts();
         loadedFile = file;
+    }
 
+    /**
+     * Nastavi pozorovatela, ktoremu graf oznamuje vkladane vrcholy a spoje (napr. GraphLoader)
+     * @param listener pozorovatel, alebo null
+     */
+    public void setLoadListener(GraphLoadListener listener) {
+        loadListener = listener;
+    }
+
+    /**
+     * Oznami pozorovatelovi priebeh citania suboru, volaju ho citace formatov grafu
+     * @param done spracovana cast
+     * @param total celkova velkost
+     */
+    void reportLoadProgress(long done, long total) {
+        if (loadListener != null) {
+            loadListener.loadProgress(done, total);
+        }
     }
 
     private void loadProductNamesAndColors() {
@@ -43,11 +91,36 @@ public class Graph {
     }
 
     /**
-     * Vlozi novy vrchol (Planet) do grafu
+     * Vlozi novy vrchol (Planet) do grafu, prideli mu ciselny identifikator
+     * a zaradi ho do indexu podla nazvu
      * @param planet instancia vrcholu (Planet)
      */
     public void insertPlanet(Planet planet) {
+        planet.setId(connectivity.addPlanet());
         planets.add(planet);
+        planetIndex.putIfAbsent(planet.getData(), planet);
+        invalidateViews();
+        if (loadListener != null) {
+            loadListener.planetInserted(planet);
+        }
+    }
+
+    /**
+     * Podla zadaneho mena najde prislusny vrchol pomocou indexu
+     * @param name nazov vrcholu
+     * @return instancia vrcholu (Planet), alebo null, ak taky vrchol v grafe nie je
+     */
+    public Planet getPlanet(String name) {
+        return planetIndex.get(name);
+    }
+
+    /**
+     * Podla ciselneho identifikatora vrati prislusny vrchol
+     * @param id identifikator vrcholu, t.j. poradie jeho vlozenia do grafu
+     * @return instancia vrcholu (Planet)
+     */
+    public Planet getPlanet(int id) {
+        return planets.get(id);
     }
 
     /**
@@ -55,7 +128,92 @@ public class Graph {
      * @param link instancia spoju (Link)
      */
     public void insertLink(Link link) {
+        link.setId(links.size());
         links.add(link);
+        connectivity.union(link.getFrom().getId(), link.getTo().getId());
+        invalidateViews();
+        if (loadListener != null) {
+            loadListener.linkInserted(link);
+        }
+    }
+
+    private void invalidateViews() {
+        version = VERSIONS.incrementAndGet();
+        discardViews(); // pohlad alebo tabulku mohlo prave vytvorit ine vlakno, preto vzdy pod zamkom
+    }
+
+    private synchronized void discardViews() {
+        compactView = null;
+        distanceTable = null;
+        if (distanceTableTask != null) {
+            distanceTableTask.cancel(false);
+            distanceTableTask = null;
+        }
+    }
+
+    /**
+     * Vrati verziu grafu, ktora sa meni pri kazdom vlozeni vrcholu alebo spoja.
+     * Verzie su jedinecne aj medzi roznymi instanciami grafu, preto sa daju pouzit v klucoch
+     * zapamatanych vysledkov (QueryCache)
+     * @return aktualna verzia grafu
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Spusti na pozadi vypocet tabulky najkratsich ciest medzi vsetkymi dvojicami vrcholov,
+     * ak je zapnuta a graf je dost maly (DistanceTable.shouldBuild). Kym tabulka nie je hotova, getDistanceTable() vracia null
+     */
+    public synchronized void startDistanceTable() {
+        if (distanceTableTask != null || !DistanceTable.shouldBuild(planets.size())) {
+            return;
+        }
+        CompactGraph view = getCompactView();
+        distanceTableTask = DistanceTable.buildAsync(view);
+        distanceTableTask.thenAccept(table -> {
+            synchronized (this) {
+                if (compactView == view) { // graf sa medzitym nezmenil
+                    distanceTable = table;
+                }
+            }
+        });
+    }
+
+    /**
+     * Zastavi vypocty bezace na pozadi (napr. pri nacitani ineho grafu)
+     */
+    public synchronized void stopBackgroundTasks() {
+        if (distanceTableTask != null) {
+            distanceTableTask.cancel(false);
+        }
+    }
+
+    /**
+     *
+     * @return tabulka najkratsich ciest, alebo null, ak este nie je vypocitana
+     */
+    public DistanceTable getDistanceTable() {
+        return distanceTable;
+    }
+
+    /**
+     * Vrati strukturu komponentov grafu, ktora sa priebezne aktualizuje pri vkladani vrcholov a spojov
+     * @return instancia struktury komponentov
+     */
+    public Connectivity getConnectivity() {
+        return connectivity;
+    }
+
+    /**
+     * Vrati kompaktny CSR pohlad na strukturu grafu, pri prvom volani po zmene grafu ho vytvori
+     * @return instancia CSR pohladu
+     */
+    public synchronized CompactGraph getCompactView() {
+        if (compactView == null) {
+            compactView = CompactGraph.build(planets, links);
+        }
+        return compactView;
     }
 
     /**
@@ -74,6 +232,15 @@ public class Graph {
         return productNamesAndColors;
     }
 
+    /**
+     * Zapise graf do binarneho formatu (GraphBinaryFile), ktory sa nacitava rychlejsie ako textovy
+     * @param file vystupny subor, zvycajne s priponou GraphBinaryFile.EXTENSION
+     * @throws IOException ak subor nie je mozne zapisat
+     */
+    public void exportBinary(File file) throws IOException {
+        GraphBinaryFile.write(this, file);
+    }
+
     /**
      * Vrati nacitany subor, z ktoreho bol graf vytvoreny
      * @return subor obsahujuci strukturu daneho grafu
@@ -109,30 +276,33 @@ public class Graph {
 
 class Planet {
 
+    private int id = -1;
     private String data;
     private Point3D coords;
     private Set<Planet> neighbours;
     private double radius;
-    private Image texture;
+    private int textureIndex;
     private Color color;
-    private Shape3D shape;
 
-    public Planet(String data, Point3D coords, double radius, Image texture, Color color) {
+    public Planet(String data, Point3D coords, double radius, int textureIndex, Color color) {
         this.data = data;
         this.coords = coords;
         this.radius = radius;
         neighbours = new HashSet<>();
-        this.texture = texture;
+        this.textureIndex = textureIndex;
         this.color = color;
-        shape = Preparer.preparePlanetSphere(this);
     }
 
     /**
      *
-     * @return prislusny trojrozmerny graficky objekt
+     * @return ciselny identifikator vrcholu v grafe, alebo -1, ak vrchol este nebol vlozeny
      */
-    public Shape3D getShape() {
-        return shape;
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
     }
 
     /**
@@ -193,10 +363,10 @@ class Planet {
 
     /**
      *
-     * @return textura planety
+     * @return index textury planety (TextureCache)
      */
-    public Image getTexture() {
-        return texture;
+    public int getTextureIndex() {
+        return textureIndex;
     }
 
     /**
@@ -223,14 +393,29 @@ class Planet {
 
 class Link {
 
+    private int id = -1;
     Planet start;
     Planet end;
     String product;
+    private final double length;
 
     public Link(Planet start, Planet end, String product) {
         this.start = start;
         this.end = end;
         this.product = product;
+        length = start.getCoords().distance(end.getCoords());
+    }
+
+    /**
+     *
+     * @return ciselny identifikator spoja v grafe (poradie vlozenia), alebo -1, ak spoj este nebol vlozeny
+     */
+    public int getId() {
+        return id;
+    }
+
+    void setId(int id) {
+        this.id = id;
     }
 
     /**
@@ -249,6 +434,14 @@ class Link {
         return end;
     }
 
+    /**
+     *
+     * @return dlzka spoja, t.j. vzdialenost jeho koncovych vrcholov v priestore
+     */
+    public double getLength() {
+        return length;
+    }
+
     /**
      *
      * @return nazov presuvaneho tovaru na hrane (spoji)
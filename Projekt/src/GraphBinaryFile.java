@@ -0,0 +1,400 @@
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Binarny format grafu (pripona .sg3d), vsetky cisla su v poradi bajtov little-endian:
+ * <pre>
+ * hlavicka (64 B): magic "SG3D", verzia, pocet vrcholov, pocet spojov, pocet tovarov, 0,
+ *                  pozicie sekcii vrcholov, spojov, nazvov vrcholov a nazvov tovarov (long)
+ * vrcholy (40 B):  x, y, z, polomer (double), farba RGBA (int), index textury (short), 2 B vypln
+ * spoje (12 B):    identifikator vrcholu odkial, kam a tovaru (int)
+ * nazvy:           pole count + 1 pozicii (int, relativne od konca pola) a za nim nazvy v UTF-8
+ * </pre>
+ * Vrcholy a spoje maju pevnu dlzku, subor sa cita cez MappedByteBuffer priamo z pamate
+ * bez rozdelovania textu na riadky a parsovania cisel. Zapisuje sa postupne cez GraphBinaryFile.Writer.
+ */
+public class GraphBinaryFile {
+
+    public static final String EXTENSION = ".sg3d";
+
+    private static final int MAGIC = 0x44334753; // "SG3D" v poradi little-endian
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int PLANET_SIZE = 40;
+    private static final int LINK_SIZE = 12;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PROGRESS_STEP = 4096;
+
+    /**
+     * Prevedie textovy subor grafu do binarneho formatu: java GraphBinaryFile vstup.txt vystup.sg3d
+     * @param args cesta k textovemu a binarnemu suboru
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: java GraphBinaryFile <input.txt> <output" + EXTENSION + ">");
+            return;
+        }
+        Graph g = new Graph();
+        GraphFileParser.parse(new File(args[0]), g);
+        write(g, new File(args[1]));
+    }
+
+    /**
+     *
+     * @param file subor
+     * @return true, ak ma subor priponu binarneho formatu
+     */
+    public static boolean isBinary(File file) {
+        return file.getName().endsWith(EXTENSION);
+    }
+
+    /**
+     * Zapise graf do binarneho suboru
+     * @param g graf
+     * @param file vystupny subor
+     * @throws IOException ak subor nie je mozne zapisat
+     */
+    public static void write(Graph g, File file) throws IOException {
+        try (Writer out = new Writer(file)) {
+            for (Planet planet: g.getPlanets()) {
+                out.addPlanet(planet.getData(), planet.getX(), planet.getY(), planet.getZ(), planet.getRadius(),
+                        planet.getColor(), planet.getTextureIndex());
+            }
+            for (Link link: g.getLinks()) {
+                out.addLink(link.getFrom().getId(), link.getTo().getId(), link.getProduct());
+            }
+        }
+    }
+
+    /**
+     * Nacita binarny subor a vlozi z neho vrcholy a spoje do grafu
+     * @param file vstupny binarny subor
+     * @param g instancia grafu
+     * @throws IOException ak subor nie je mozne citat alebo nie je v binarnom formate grafu
+     */
+    public static void read(File file, Graph g) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(file + ": file too short for a graph header");
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC) {
+                throw new IOException(file + ": not a " + EXTENSION + " graph file");
+            }
+            if (map.getInt(4) != VERSION) {
+                throw new IOException(file + ": unsupported format version " + map.getInt(4));
+            }
+            int planetCount = map.getInt(8);
+            int linkCount = map.getInt(12);
+            int productCount = map.getInt(16);
+            if (planetCount < 0 || linkCount < 0 || productCount < 0) {
+                throw new IOException(file + ": corrupted header");
+            }
+            int planetsOffset = checkedOffset(map, 24, (long) planetCount * PLANET_SIZE, file);
+            int linksOffset = checkedOffset(map, 32, (long) linkCount * LINK_SIZE, file);
+            int namesOffset = checkedOffset(map, 40, 4L * (planetCount + 1), file);
+            int productsOffset = checkedOffset(map, 48, 4L * (productCount + 1), file);
+
+            String[] products = readNames(map, productsOffset, productCount, file);
+            NameReader names = new NameReader(map, namesOffset, planetCount, file);
+            Planet[] planets = new Planet[planetCount];
+            for (int i = 0; i < planetCount; i++) {
+                int record = planetsOffset + i * PLANET_SIZE;
+                Point3D coords = new Point3D(map.getDouble(record), map.getDouble(record + 8), map.getDouble(record + 16));
+                double radius = map.getDouble(record + 24);
+                Color color = fromRgba(map.getInt(record + 32));
+                int textureIndex = map.getShort(record + 36);
+                planets[i] = new Planet(names.get(i), coords, radius, textureIndex, color);
+                g.insertPlanet(planets[i]);
+                if (i % PROGRESS_STEP == 0) {
+                    g.reportLoadProgress(i, (long) planetCount + linkCount);
+                }
+            }
+
+            for (int i = 0; i < linkCount; i++) {
+                int record = linksOffset + i * LINK_SIZE;
+                int from = map.getInt(record);
+                int to = map.getInt(record + 4);
+                int product = map.getInt(record + 8);
+                if (from < 0 || from >= planetCount || to < 0 || to >= planetCount || product < 0 || product >= productCount) {
+                    throw new IOException(file + ": link " + i + " refers to a missing planet or product");
+                }
+                Planet planetFrom = planets[from];
+                Planet planetTo = planets[to];
+                planetFrom.addNeigbour(planetTo);
+                planetTo.addNeigbour(planetFrom);
+                g.insertLink(new Link(planetFrom, planetTo, products[product]));
+                if (i % PROGRESS_STEP == 0) {
+                    g.reportLoadProgress((long) planetCount + i, (long) planetCount + linkCount);
+                }
+            }
+        }
+    }
+
+    private static void writeNames(BlockWriter out, int count, int[] ends, byte[] data) throws IOException {
+        out.reserve(4).putInt(0);
+        for (int i = 0; i < count; i++) {
+            out.reserve(4).putInt(ends[i]);
+        }
+        out.put(data, count == 0 ? 0 : ends[count - 1]);
+    }
+
+    private static String[] readNames(MappedByteBuffer map, int tableOffset, int count, File file) throws IOException {
+        NameReader reader = new NameReader(map, tableOffset, count, file);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = reader.get(i);
+        }
+        return names;
+    }
+
+    private static int checkedOffset(MappedByteBuffer map, int headerField, long sectionSize, File file) throws IOException {
+        long offset = map.getLong(headerField);
+        if (offset < HEADER_SIZE || offset + sectionSize > map.capacity()) {
+            throw new IOException(file + ": corrupted section offset " + offset);
+        }
+        return (int) offset;
+    }
+
+    private static int toRgba(Color color) {
+        return (int) Math.round(color.getRed() * 255) << 24 | (int) Math.round(color.getGreen() * 255) << 16
+                | (int) Math.round(color.getBlue() * 255) << 8 | (int) Math.round(color.getOpacity() * 255);
+    }
+
+    private static Color fromRgba(int rgba) {
+        return Color.rgb(rgba >>> 24, rgba >>> 16 & 0xFF, rgba >>> 8 & 0xFF, (rgba & 0xFF) / 255.0);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Postupny zapis grafu do binarneho suboru bez vytvarania objektov Planet a Link (napr. GraphGenerator).
+     * Najprv sa zapisu vsetky vrcholy, potom vsetky spoje. Nazvy sa drzia v pamati len ako bajty v UTF-8
+     * a zapisu sa pri zatvoreni, hlavicka sa doplni na zaciatok suboru nakoniec
+     */
+    public static class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final BlockWriter out;
+        private final long planetsOffset = HEADER_SIZE;
+        private long linksOffset = -1;
+        private int planetCount;
+        private int linkCount;
+        private byte[] names = new byte[BUFFER_SIZE];
+        private int[] nameEnds = new int[1024];
+        private final Map<String, Integer> productIds = new LinkedHashMap<>();
+
+        /**
+         * @param file vystupny subor, ak existuje, prepise sa
+         * @throws IOException ak subor nie je mozne vytvorit
+         */
+        public Writer(File file) throws IOException {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            out = new BlockWriter(channel, HEADER_SIZE);
+        }
+
+        /**
+         * Zapise dalsi vrchol, jeho identifikator je poradie volania (od 0)
+         * @throws IllegalStateException ak uz boli zapisane nejake spoje
+         */
+        public void addPlanet(String name, double x, double y, double z, double radius, Color color, int textureIndex)
+                throws IOException {
+            if (linksOffset != -1) {
+                throw new IllegalStateException("planets must be written before links");
+            }
+            ByteBuffer record = out.reserve(PLANET_SIZE);
+            record.putDouble(x);
+            record.putDouble(y);
+            record.putDouble(z);
+            record.putDouble(radius);
+            record.putInt(toRgba(color));
+            record.putShort((short) textureIndex);
+            record.putShort((short) 0);
+
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            int start = planetCount == 0 ? 0 : nameEnds[planetCount - 1];
+            if (start + bytes.length > names.length) {
+                names = Arrays.copyOf(names, Math.max(start + bytes.length, names.length * 2));
+            }
+            System.arraycopy(bytes, 0, names, start, bytes.length);
+            if (planetCount == nameEnds.length) {
+                nameEnds = Arrays.copyOf(nameEnds, planetCount * 2);
+            }
+            nameEnds[planetCount++] = start + bytes.length;
+        }
+
+        /**
+         * Zapise dalsi spoj medzi uz zapisanymi vrcholmi
+         * @param from identifikator vrcholu odkial
+         * @param to identifikator vrcholu kam
+         * @param product nazov tovaru
+         * @throws IllegalArgumentException ak vrchol s danym identifikatorom nebol zapisany
+         */
+        public void addLink(int from, int to, String product) throws IOException {
+            if (from < 0 || from >= planetCount || to < 0 || to >= planetCount) {
+                throw new IllegalArgumentException("link " + from + " - " + to + " refers to a missing planet");
+            }
+            if (linksOffset == -1) {
+                linksOffset = out.position();
+            }
+            Integer productId = productIds.get(product);
+            if (productId == null) {
+                productId = productIds.size();
+                productIds.put(product, productId);
+            }
+            ByteBuffer record = out.reserve(LINK_SIZE);
+            record.putInt(from);
+            record.putInt(to);
+            record.putInt(productId);
+            linkCount++;
+        }
+
+        /**
+         *
+         * @return pocet doteraz zapisanych vrcholov
+         */
+        public int getPlanetCount() {
+            return planetCount;
+        }
+
+        /**
+         * Zapise nazvy vrcholov a tovarov a hlavicku a zatvori subor
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (linksOffset == -1) {
+                    linksOffset = out.position();
+                }
+                long namesOffset = out.position();
+                writeNames(out, planetCount, nameEnds, names);
+
+                ByteArrayOutputStream productNames = new ByteArrayOutputStream();
+                int[] productEnds = new int[productIds.size()];
+                int i = 0;
+                for (String product: productIds.keySet()) {
+                    byte[] bytes = product.getBytes(StandardCharsets.UTF_8);
+                    productNames.write(bytes, 0, bytes.length);
+                    productEnds[i++] = productNames.size();
+                }
+                long productsOffset = out.position();
+                writeNames(out, productEnds.length, productEnds, productNames.toByteArray());
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC);
+                header.putInt(VERSION);
+                header.putInt(planetCount);
+                header.putInt(linkCount);
+                header.putInt(productIds.size());
+                header.putInt(0);
+                header.putLong(planetsOffset);
+                header.putLong(linksOffset);
+                header.putLong(namesOffset);
+                header.putLong(productsOffset);
+                header.clear();
+                writeFully(channel, header, 0);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Postupny zapis cez jeden buffer na pozicie v subore, bez zavislosti od pozicie kanala
+     */
+    private static class BlockWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long flushed;
+
+        BlockWriter(FileChannel channel, long start) {
+            this.channel = channel;
+            this.flushed = start;
+        }
+
+        long position() {
+            return flushed + buffer.position();
+        }
+
+        ByteBuffer reserve(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void put(byte[] bytes, int length) throws IOException {
+            for (int i = 0; i < length; ) {
+                int chunk = Math.min(length - i, reserve(1).remaining());
+                buffer.put(bytes, i, chunk);
+                i += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            int size = buffer.remaining();
+            writeFully(channel, buffer, flushed);
+            flushed += size;
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Cita nazvy zo sekcie nazvov namapovaneho suboru
+     */
+    private static class NameReader {
+
+        private final MappedByteBuffer map;
+        private final ByteBuffer data;
+        private final int tableOffset;
+        private final int dataOffset;
+        private final int count;
+        private final File file;
+        private byte[] bytes = new byte[64];
+
+        NameReader(MappedByteBuffer map, int tableOffset, int count, File file) {
+            this.map = map;
+            this.data = map.duplicate();
+            this.tableOffset = tableOffset;
+            this.dataOffset = tableOffset + 4 * (count + 1);
+            this.count = count;
+            this.file = file;
+        }
+
+        String get(int i) throws IOException {
+            int start = map.getInt(tableOffset + 4 * i);
+            int end = map.getInt(tableOffset + 4 * (i + 1));
+            if (start < 0 || end < start || (long) dataOffset + end > map.capacity()) {
+                throw new IOException(file + ": corrupted name " + i + " of " + count);
+            }
+            int length = end - start;
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            data.position(dataOffset + start);
+            data.get(bytes, 0, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+}
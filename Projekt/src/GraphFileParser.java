@@ -0,0 +1,279 @@
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Citac textoveho formatu grafu (riadky vrcholov "nazov|x|y|z|polomer|#farba|textura",
+ * oddelovac "#####" a riadky spojov "odkial|kam|tovar").
+ * Subor cita po blokoch cez FileChannel a riadky rozdeluje priamo v poli bajtov,
+ * cisla a farby cita bez vytvarania pomocnych retazcov. Nazvy su v kodovani UTF-8.
+ * Pri chybe vo formate hodi GraphFormatException s cislom riadku.
+ */
+public class GraphFileParser {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int PLANET_FIELDS = 7;
+    private static final int LINK_FIELDS = 3;
+    private static final byte SEPARATOR = '|';
+    private static final byte[] SECTION_END = "#####".getBytes(StandardCharsets.US_ASCII);
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private final Graph g;
+    private final int[] fieldStarts = new int[PLANET_FIELDS];
+    private final int[] fieldEnds = new int[PLANET_FIELDS];
+    private int lineNumber;
+    private boolean linkSection;
+
+    private GraphFileParser(Graph g) {
+        this.g = g;
+    }
+
+    /**
+     * Nacita subor a vlozi z neho vrcholy a spoje do grafu
+     * @param file vstupny textovy subor
+     * @param g instancia grafu
+     * @throws GraphFormatException ak subor nezodpoveda formatu
+     * @throws IOException ak subor nie je mozne citat
+     */
+    public static void parse(File file, Graph g) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            new GraphFileParser(g).parse(channel);
+        }
+    }
+
+    private void parse(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long size = channel.size();
+        long consumed = 0;
+        boolean endOfFile = false;
+        while (!endOfFile) {
+            endOfFile = channel.read(buffer) == -1;
+            byte[] bytes = buffer.array();
+            int limit = buffer.position();
+            int lineStart = 0;
+            for (int i = 0; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    parseLine(bytes, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfFile) {
+                if (lineStart < limit) {
+                    parseLine(bytes, lineStart, limit); // posledny riadok bez konca riadku
+                }
+            } else if (lineStart == 0 && limit == bytes.length) {
+                // riadok dlhsi ako buffer
+                buffer = ByteBuffer.allocate(bytes.length * 2);
+                buffer.put(bytes, 0, limit);
+            } else {
+                System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+                buffer.position(limit - lineStart);
+            }
+            consumed += lineStart;
+            g.reportLoadProgress(consumed, size);
+        }
+    }
+
+    private void parseLine(byte[] bytes, int start, int end) throws GraphFormatException {
+        lineNumber++;
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        if (start == end) {
+            return;
+        }
+        if (!linkSection) {
+            if (equals(bytes, start, end, SECTION_END)) {
+                linkSection = true;
+            } else {
+                parsePlanet(bytes, start, end);
+            }
+        } else {
+            parseLink(bytes, start, end);
+        }
+    }
+
+    private void parsePlanet(byte[] bytes, int start, int end) throws GraphFormatException {
+        split(bytes, start, end, PLANET_FIELDS);
+        String name = parseString(bytes, 0);
+        double x = parseDouble(bytes, 1, "x");
+        double y = parseDouble(bytes, 2, "y");
+        double z = parseDouble(bytes, 3, "z");
+        double radius = parseDouble(bytes, 4, "radius");
+        Color color = parseColor(bytes, 5);
+        int textureIndex = parseInt(bytes, 6, "texture index");
+        g.insertPlanet(new Planet(name, new Point3D(x, y, z), radius, textureIndex, color));
+    }
+
+    private void parseLink(byte[] bytes, int start, int end) throws GraphFormatException {
+        split(bytes, start, end, LINK_FIELDS);
+        Planet planetFrom = g.getPlanet(parseString(bytes, 0));
+        Planet planetTo = g.getPlanet(parseString(bytes, 1));
+        if (planetFrom != null && planetTo != null) {
+            planetFrom.addNeigbour(planetTo);
+            planetTo.addNeigbour(planetFrom);
+            g.insertLink(new Link(planetFrom, planetTo, parseString(bytes, 2)));
+        }
+    }
+
+    /**
+     * Najde hranice prvych count poli riadku oddelenych znakom '|', dalsie polia ignoruje
+     */
+    private void split(byte[] bytes, int start, int end, int count) throws GraphFormatException {
+        int field = 0;
+        fieldStarts[0] = start;
+        for (int i = start; i < end && field < count; i++) {
+            if (bytes[i] == SEPARATOR) {
+                fieldEnds[field++] = i;
+                if (field < count) {
+                    fieldStarts[field] = i + 1;
+                }
+            }
+        }
+        if (field < count) {
+            fieldEnds[field++] = end;
+        }
+        if (field < count) {
+            throw error("expected " + count + " fields separated by '|', found " + field);
+        }
+    }
+
+    private String parseString(byte[] bytes, int field) {
+        return new String(bytes, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Desatinne cislo s najviac 15 cislicami (bez exponentu) vypocita priamo, co je presne,
+     * lebo citatel aj mocnina desiatky su presne reprezentovatelne. Ostatne zapisy prenecha Double.parseDouble
+     */
+    private double parseDouble(byte[] bytes, int field, String what) throws GraphFormatException {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean fraction = false;
+        for (; i < end; i++) {
+            int b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (fraction) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else {
+                break;
+            }
+        }
+        if (i == end && digits > 0 && digits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        }
+        String text = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw error("invalid " + what + " '" + text + "'");
+        }
+    }
+
+    private int parseInt(byte[] bytes, int field, String what) throws GraphFormatException {
+        int start = fieldStarts[field];
+        int end = fieldEnds[field];
+        int i = start;
+        boolean negative = false;
+        if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        if (i == end || end - i > 9) {
+            throw error("invalid " + what + " '" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "'");
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            int b = bytes[i];
+            if (b < '0' || b > '9') {
+                throw error("invalid " + what + " '" + new String(bytes, start, end - start, StandardCharsets.UTF_8) + "'");
+            }
+            value = value * 10 + (b - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Farby v tvare #rrggbb a #rrggbbaa cita priamo, ostatne zapisy (napr. nazvy farieb) prenecha Color.web
+     */
+    private Color parseColor(byte[] bytes, int field) throws GraphFormatException {
+        int start = fieldStarts[field];
+        int length = fieldEnds[field] - start;
+        if ((length == 7 || length == 9) && bytes[start] == '#') {
+            int r = hexByte(bytes, start + 1);
+            int g = hexByte(bytes, start + 3);
+            int b = hexByte(bytes, start + 5);
+            int a = length == 9 ? hexByte(bytes, start + 7) : 255;
+            if ((r | g | b | a) >= 0) {
+                return Color.rgb(r, g, b, a / 255.0);
+            }
+        }
+        String text = new String(bytes, start, length, StandardCharsets.UTF_8);
+        try {
+            return Color.web(text);
+        } catch (IllegalArgumentException e) {
+            throw error("invalid color '" + text + "'");
+        }
+    }
+
+    /**
+     * @return hodnota dvoch hexadecimalnych cislic, alebo zaporne cislo, ak to nie su hexadecimalne cislice
+     */
+    private static int hexByte(byte[] bytes, int i) {
+        int high = hexDigit(bytes[i]);
+        int low = hexDigit(bytes[i + 1]);
+        return high < 0 || low < 0 ? -1 : high << 4 | low;
+    }
+
+    private static int hexDigit(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        }
+        if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        }
+        if (b >= 'A' && b <= 'F') {
+            return b - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static boolean equals(byte[] bytes, int start, int end, byte[] expected) {
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (bytes[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private GraphFormatException error(String message) {
+        return new GraphFormatException(lineNumber, message);
+    }
+}
@@ -0,0 +1,28 @@
+import java.io.IOException;
+
+/**
+ * Chyba vo vstupnom subore grafu, obsahuje cislo riadku, na ktorom nastala
+ */
+public class GraphFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int line;
+
+    /**
+     * @param line cislo riadku (od 1)
+     * @param message popis chyby
+     */
+    public GraphFormatException(int line, String message) {
+        super("line " + line + ": " + message);
+        this.line = line;
+    }
+
+    /**
+     *
+     * @return cislo riadku (od 1), na ktorom nastala chyba
+     */
+    public int getLine() {
+        return line;
+    }
+}
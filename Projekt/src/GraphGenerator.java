@@ -0,0 +1,369 @@
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Generator nahodnych grafov pre merania vykonu a zatazove testy. Rovnake nastavenia a seed
+ * daju vzdy rovnaky graf v textovom aj binarnom formate. Vrcholy a spoje zapisuje priamo do suboru
+ * bez vytvarania objektov grafu, preto zvladne aj grafy s milionmi vrcholov.
+ * Spusta sa aj samostatne, napr.: java GraphGenerator --planets 100000 --degree 3 synthetic100000.sg3d
+ */
+public class GraphGenerator {
+
+    /**
+     * Rozdelenie suradnic vrcholov v priestore
+     */
+    public enum Distribution {
+        /** rovnomerne v kocke */
+        UNIFORM,
+        /** normalne rozdelenie okolo stredu */
+        GAUSSIAN,
+        /** na povrchu gule */
+        SHELL,
+        /** v niekolkych zhlukoch */
+        CLUSTERS
+    }
+
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "re", "su", "ta", "vo", "ne", "xi", "dar", "bel", "qua", "zor", "fen", "ith", "ul"
+    };
+    private static final String[] ELEMENTS = {
+            "Holmium", "Argon", "Potassium", "Zirconium", "Magnesium", "Helium", "Neon", "Xenon",
+            "Lithium", "Cobalt", "Iridium", "Osmium", "Titanium", "Vanadium", "Krypton", "Radon"
+    };
+    private static final int CLUSTER_COUNT = 16;
+    private static final int TEXTURE_COUNT = 15;
+
+    private long seed = 1;
+    private int planetCount = 10_000;
+    private double averageDegree = 2.5;
+    private Distribution distribution = Distribution.UNIFORM;
+    private int productCount = 20;
+    private double extent = 700;
+
+    /**
+     * Vygeneruje graf podla argumentov prikazoveho riadku, format vystupu urci pripona suboru
+     * @param args [--planets N] [--degree D] [--distribution UNIFORM|GAUSSIAN|SHELL|CLUSTERS]
+     *             [--products P] [--extent E] [--seed S] vystupny_subor
+     */
+    public static void main(String[] args) throws IOException {
+        GraphGenerator generator = new GraphGenerator();
+        File output = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--planets": generator.setPlanetCount(Integer.parseInt(args[++i])); break;
+                    case "--degree": generator.setAverageDegree(Double.parseDouble(args[++i])); break;
+                    case "--distribution": generator.setDistribution(Distribution.valueOf(args[++i].toUpperCase())); break;
+                    case "--products": generator.setProductCount(Integer.parseInt(args[++i])); break;
+                    case "--extent": generator.setExtent(Double.parseDouble(args[++i])); break;
+                    case "--seed": generator.setSeed(Long.parseLong(args[++i])); break;
+                    default:
+                        if (args[i].startsWith("--") || output != null) {
+                            throw new IllegalArgumentException(args[i]);
+                        }
+                        output = new File(args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            output = null;
+        }
+        if (output == null) {
+            System.err.println("usage: java GraphGenerator [--planets N] [--degree D] "
+                    + "[--distribution UNIFORM|GAUSSIAN|SHELL|CLUSTERS] [--products P] [--extent E] [--seed S] "
+                    + "<output.txt|output" + GraphBinaryFile.EXTENSION + ">");
+            return;
+        }
+        long start = System.nanoTime();
+        generator.write(output);
+        System.out.println("written " + output + " (" + generator.getPlanetCount() + " planets, "
+                + generator.getLinkCount() + " links) in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public GraphGenerator setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public GraphGenerator setPlanetCount(int planetCount) {
+        if (planetCount < 2) {
+            throw new IllegalArgumentException("at least 2 planets are required");
+        }
+        this.planetCount = planetCount;
+        return this;
+    }
+
+    /**
+     * @param averageDegree priemerny pocet spojov vrcholu, t.j. hustota grafu
+     * @return tento generator
+     */
+    public GraphGenerator setAverageDegree(double averageDegree) {
+        if (averageDegree < 0) {
+            throw new IllegalArgumentException("degree must not be negative");
+        }
+        this.averageDegree = averageDegree;
+        return this;
+    }
+
+    public GraphGenerator setDistribution(Distribution distribution) {
+        this.distribution = distribution;
+        return this;
+    }
+
+    /**
+     * @param productCount pocet roznych tovarov (velkost abecedy tovarov)
+     * @return tento generator
+     */
+    public GraphGenerator setProductCount(int productCount) {
+        if (productCount < 1) {
+            throw new IllegalArgumentException("at least 1 product is required");
+        }
+        this.productCount = productCount;
+        return this;
+    }
+
+    /**
+     * @param extent polovica dlzky hrany kocky (resp. polomer gule), v ktorej lezia vrcholy
+     * @return tento generator
+     */
+    public GraphGenerator setExtent(double extent) {
+        this.extent = extent;
+        return this;
+    }
+
+    public int getPlanetCount() {
+        return planetCount;
+    }
+
+    /**
+     *
+     * @return pocet spojov, ktore generator vytvori
+     */
+    public long getLinkCount() {
+        return Math.round(planetCount * averageDegree / 2);
+    }
+
+    /**
+     * Zapise graf do suboru vo formate podla pripony (GraphBinaryFile.EXTENSION, inak textovy)
+     * @param file vystupny subor
+     * @throws IOException ak subor nie je mozne zapisat
+     */
+    public void write(File file) throws IOException {
+        if (GraphBinaryFile.isBinary(file)) {
+            writeBinary(file);
+        } else {
+            writeText(file);
+        }
+    }
+
+    /**
+     * Zapise graf v textovom formate (vrcholy, oddelovac #####, spoje)
+     * @param file vystupny subor
+     * @throws IOException ak subor nie je mozne zapisat
+     */
+    public void writeText(File file) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8),
+                1 << 16)) {
+            StringBuilder line = new StringBuilder(64);
+            generate(new Sink() {
+                @Override
+                public void planet(String name, double x, double y, double z, double radius, Color color, int textureIndex)
+                        throws IOException {
+                    line.setLength(0);
+                    line.append(name).append('|').append((long) x).append('|').append((long) y).append('|')
+                            .append((long) z).append('|').append((long) radius).append('|').append('#');
+                    appendHex(line, color.getRed());
+                    appendHex(line, color.getGreen());
+                    appendHex(line, color.getBlue());
+                    line.append('|').append(textureIndex).append('\n');
+                    out.append(line);
+                }
+
+                @Override
+                public void separator() throws IOException {
+                    out.write("#####\n");
+                }
+
+                @Override
+                public void link(String from, int fromId, String to, int toId, String product) throws IOException {
+                    line.setLength(0);
+                    line.append(from).append('|').append(to).append('|').append(product).append('\n');
+                    out.append(line);
+                }
+            });
+        }
+    }
+
+    /**
+     * Zapise graf v binarnom formate (GraphBinaryFile)
+     * @param file vystupny subor
+     * @throws IOException ak subor nie je mozne zapisat
+     */
+    public void writeBinary(File file) throws IOException {
+        try (GraphBinaryFile.Writer out = new GraphBinaryFile.Writer(file)) {
+            generate(new Sink() {
+                @Override
+                public void planet(String name, double x, double y, double z, double radius, Color color, int textureIndex)
+                        throws IOException {
+                    out.addPlanet(name, x, y, z, radius, color, textureIndex);
+                }
+
+                @Override
+                public void link(String from, int fromId, String to, int toId, String product) throws IOException {
+                    out.addLink(fromId, toId, product);
+                }
+            });
+        }
+    }
+
+    /**
+     * Vytvori graf v pamati (len pre mensie grafy)
+     * @return vygenerovany graf
+     */
+    public Graph generate() {
+        Graph g = new Graph();
+        Planet[] planets = new Planet[planetCount];
+        try {
+            generate(new Sink() {
+                @Override
+                public void planet(String name, double x, double y, double z, double radius, Color color, int textureIndex) {
+                    Planet planet = new Planet(name, new Point3D(x, y, z), radius, textureIndex, color);
+                    g.insertPlanet(planet);
+                    planets[planet.getId()] = planet;
+                }
+
+                @Override
+                public void link(String from, int fromId, String to, int toId, String product) {
+                    planets[fromId].addNeigbour(planets[toId]);
+                    planets[toId].addNeigbour(planets[fromId]);
+                    g.insertLink(new Link(planets[fromId], planets[toId], product));
+                }
+            });
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // Sink v pamati nic nezapisuje
+        }
+        return g;
+    }
+
+    /**
+     * Vygeneruje vrcholy a spoje v poradi, v akom sa zapisuju do suboru.
+     * Suradnice a polomery su cele cisla, rovnako ako v dodanych grafoch
+     */
+    private void generate(Sink sink) throws IOException {
+        SplittableRandom rnd = new SplittableRandom(seed);
+        double[] clusters = new double[CLUSTER_COUNT * 3];
+        for (int i = 0; i < clusters.length; i++) {
+            clusters[i] = (rnd.nextDouble() * 2 - 1) * extent * 0.8;
+        }
+        double[] point = new double[3];
+        for (int i = 0; i < planetCount; i++) {
+            randomPoint(rnd, clusters, point);
+            double radius = 5 + rnd.nextInt(15);
+            Color color = Color.rgb(rnd.nextInt(256), rnd.nextInt(256), rnd.nextInt(256));
+            sink.planet(planetName(i), Math.round(point[0]), Math.round(point[1]), Math.round(point[2]), radius, color,
+                    rnd.nextInt(TEXTURE_COUNT));
+        }
+        sink.separator();
+
+        String[] products = new String[productCount];
+        for (int i = 0; i < productCount; i++) {
+            products[i] = ELEMENTS[i % ELEMENTS.length] + (i < ELEMENTS.length ? "" : String.valueOf(i / ELEMENTS.length));
+        }
+        long linkCount = getLinkCount();
+        for (long i = 0; i < linkCount; i++) {
+            int from = rnd.nextInt(planetCount);
+            int to = rnd.nextInt(planetCount - 1);
+            if (to >= from) {
+                to++; // bez sluciek
+            }
+            sink.link(planetName(from), from, planetName(to), to, products[rnd.nextInt(productCount)]);
+        }
+    }
+
+    private void randomPoint(SplittableRandom rnd, double[] clusters, double[] point) {
+        switch (distribution) {
+            case UNIFORM:
+                for (int i = 0; i < 3; i++) {
+                    point[i] = (rnd.nextDouble() * 2 - 1) * extent;
+                }
+                break;
+            case GAUSSIAN:
+                for (int i = 0; i < 3; i++) {
+                    point[i] = clamp(gaussian(rnd) * extent / 3);
+                }
+                break;
+            case SHELL:
+                double length;
+                do {
+                    for (int i = 0; i < 3; i++) {
+                        point[i] = gaussian(rnd);
+                    }
+                    length = Math.sqrt(point[0] * point[0] + point[1] * point[1] + point[2] * point[2]);
+                } while (length == 0);
+                for (int i = 0; i < 3; i++) {
+                    point[i] = point[i] / length * extent;
+                }
+                break;
+            case CLUSTERS:
+                int cluster = rnd.nextInt(CLUSTER_COUNT);
+                for (int i = 0; i < 3; i++) {
+                    point[i] = clamp(clusters[cluster * 3 + i] + gaussian(rnd) * extent / 12);
+                }
+                break;
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(-extent, Math.min(extent, value));
+    }
+
+    /**
+     * Normalne rozdelenie (Box-Mullerova transformacia), SplittableRandom nema nextGaussian
+     */
+    private static double gaussian(SplittableRandom rnd) {
+        double u = 1 - rnd.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * rnd.nextDouble());
+    }
+
+    /**
+     * Jedinecny nazov vrcholu: cislo vrcholu zapisane v bijektivnej ciselnej sustave so slabikami ako cislicami
+     */
+    static String planetName(int index) {
+        StringBuilder name = new StringBuilder();
+        long n = index + 1L;
+        while (n > 0) {
+            n--;
+            name.append(SYLLABLES[(int) (n % SYLLABLES.length)]);
+            n /= SYLLABLES.length;
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    private static void appendHex(StringBuilder out, double channel) {
+        int value = (int) Math.round(channel * 255);
+        out.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xF, 16));
+    }
+
+    /**
+     * Prijemca vygenerovanych vrcholov a spojov
+     */
+    private interface Sink {
+
+        void planet(String name, double x, double y, double z, double radius, Color color, int textureIndex)
+                throws IOException;
+
+        default void separator() throws IOException {
+        }
+
+        void link(String from, int fromId, String to, int toId, String product) throws IOException;
+    }
+}
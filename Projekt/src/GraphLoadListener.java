@@ -0,0 +1,24 @@
+/**
+ * Pozorovatel nacitavania grafu, Graph mu oznamuje kazdy vlozeny vrchol a spoj.
+ * Metody sa volaju vo vlakne, ktore graf nacitava.
+ */
+public interface GraphLoadListener {
+
+    /**
+     * @param planet prave vlozeny vrchol, uz s pridelenym identifikatorom
+     */
+    void planetInserted(Planet planet);
+
+    /**
+     * @param link prave vlozeny spoj
+     */
+    void linkInserted(Link link);
+
+    /**
+     * Priebeh citania suboru, napr. v bajtoch alebo v zaznamoch
+     * @param done spracovana cast
+     * @param total celkova velkost
+     */
+    default void loadProgress(long done, long total) {
+    }
+}
@@ -0,0 +1,196 @@
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.control.ProgressIndicator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Postupne nacitanie grafu do sceny. Subor cita samostatne vlakno, ktore nacitane vrcholy a spoje
+ * vklada do ohranicenej fronty (ak je plna, citanie pocka). AnimationTimer z nej v kazdom snimku
+ * vyberie najviac NODES_PER_PULSE planet a spojov (casti LinkMesh) a prida ich do sceny, takze prve planety
+ * su vidiet hned a okno pocas nacitavania reaguje.
+ * Vsetky metody okrem citania suboru bezia v JavaFX vlakne.
+ */
+public class GraphLoader implements GraphLoadListener {
+
+    private static final int QUEUE_CAPACITY = 4096;
+    private static final int NODES_PER_PULSE = 400;
+    private static final Object END = new Object();
+
+    private final File file;
+    private final Group planetGroup;
+    private final Graph graph = new Graph();
+    private final GraphView view = new GraphView(graph);
+    private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final List<Planet> planetBatch = new ArrayList<>(NODES_PER_PULSE);
+    private final List<Link> linkBatch = new ArrayList<>(NODES_PER_PULSE);
+    private final ReadOnlyDoubleWrapper progress = new ReadOnlyDoubleWrapper(ProgressIndicator.INDETERMINATE_PROGRESS);
+    private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper();
+    private final Consumer<GraphView> onLoaded;
+    private final Runnable onCancelled;
+    private volatile double readProgress;
+    private List<Node> previousChildren;
+    private Thread reader;
+    private AnimationTimer timer;
+
+    /**
+     * @param file vstupny subor (textovy alebo binarny)
+     * @param planetGroup skupina objektov, do ktorej sa graf vykresli
+     * @param onLoaded vola sa po nacitani celeho grafu s jeho grafickym zobrazenim
+     * @param onCancelled vola sa po zruseni alebo zlyhani nacitavania, ked je v skupine opat povodny graf
+     */
+    public GraphLoader(File file, Group planetGroup, Consumer<GraphView> onLoaded, Runnable onCancelled) {
+        this.file = file;
+        this.planetGroup = planetGroup;
+        this.onLoaded = onLoaded;
+        this.onCancelled = onCancelled;
+    }
+
+    /**
+     * Odlozi objekty povodneho grafu zo skupiny a spusti citanie suboru a vykreslovanie
+     */
+    public void start() {
+        previousChildren = new ArrayList<>(planetGroup.getChildren());
+        planetGroup.getChildren().setAll(view.getPlanetNodes());
+        graph.setLoadListener(this);
+        reader = new Thread(this::read, "graph-loader");
+        reader.setDaemon(true);
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                drain();
+            }
+        };
+        running.set(true);
+        reader.start();
+        timer.start();
+    }
+
+    /**
+     * Zrusi nacitavanie a vrati do skupiny objekty povodneho grafu
+     */
+    public void cancel() {
+        if (!running.get()) {
+            return;
+        }
+        reader.interrupt();
+        restore();
+    }
+
+    /**
+     * Ukonci nacitavanie, ktore zlyhalo, vrati do skupiny objekty povodneho grafu a zobrazi chybu
+     * @param error pricina zlyhania
+     */
+    private void fail(Throwable error) {
+        if (!running.get()) {
+            return; // nacitavanie uz bolo zrusene
+        }
+        restore();
+        Utils.showError("File loading error", error);
+    }
+
+    private void restore() {
+        timer.stop();
+        queue.clear();
+        planetGroup.getChildren().setAll(previousChildren);
+        running.set(false);
+        onCancelled.run();
+    }
+
+    /**
+     *
+     * @return priebeh nacitavania od 0 do 1
+     */
+    public ReadOnlyDoubleProperty progressProperty() {
+        return progress.getReadOnlyProperty();
+    }
+
+    /**
+     *
+     * @return true, kym sa graf nacitava
+     */
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running.getReadOnlyProperty();
+    }
+
+    @Override
+    public void planetInserted(Planet planet) {
+        TextureCache.request(planet.getTextureIndex()); // dekodovanie zacne skor, ako sa planeta vykresli
+        offer(planet);
+    }
+
+    @Override
+    public void linkInserted(Link link) {
+        offer(link);
+    }
+
+    @Override
+    public void loadProgress(long done, long total) {
+        readProgress = total == 0 ? 1 : (double) done / total;
+    }
+
+    private void read() {
+        try {
+            graph.load(file);
+            graph.setLoadListener(null);
+            queue.put(END);
+        } catch (InterruptedException | CancellationException e) {
+            // nacitavanie bolo zrusene
+        } catch (Throwable e) { // chyba suboru (IOException), nedostatok pamate a pod.
+            Platform.runLater(() -> fail(e));
+        }
+    }
+
+    private void offer(Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException();
+        }
+    }
+
+    /**
+     * Prida do sceny dalsiu davku objektov, po poslednej davke dokonci nacitanie
+     */
+    private void drain() {
+        planetBatch.clear();
+        linkBatch.clear();
+        boolean finished = false;
+        while (planetBatch.size() + linkBatch.size() < NODES_PER_PULSE) {
+            Object item = queue.poll();
+            if (item == null) {
+                break;
+            } else if (item == END) {
+                finished = true;
+                break;
+            } else if (item instanceof Planet) {
+                planetBatch.add((Planet) item);
+            } else {
+                linkBatch.add((Link) item);
+            }
+        }
+        view.addPlanets(planetBatch);
+        planetGroup.getChildren().addAll(view.getLinkMesh().addLinks(linkBatch));
+        progress.set(readProgress);
+        if (finished) {
+            timer.stop();
+            view.arrangeChunks(); // siete podla oblasti celeho grafu, nie podla davok
+            progress.set(1);
+            running.set(false);
+            onLoaded.accept(view);
+        }
+    }
+}
@@ -0,0 +1,495 @@
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.input.PickResult;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Shape3D;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Prepojenie datovej struktury graf s jej grafickym zobrazenim v scene.
+ * Mensie grafy maju pre kazdu planetu vlastny objekt so zdielanou sietou gule (PlanetLod), od BATCH_THRESHOLD planet sa planety
+ * s rovnakou texturou vykresluju spolocne (PlanetMesh), aby scena nemala tisice objektov a materialov.
+ * Textury poskytuje TextureCache, kym sa textura dekoduje, planeta je zobrazena len svojou farbou.
+ * Farby planet a spojov sa menia cez tuto triedu, zmeny sa prejavia po zavolani apply().
+ * Zvyraznenie casti grafu drzi HighlightState (getHighlight()), ktory meni len planety a spoje so zmenenou farbou.
+ * Objekty mimo zorneho pola kamery sa skryvaju (cull), planety sa vyhladavaju cez priestorovu mriezku (SpatialGrid).
+ * Nazvy planet sa nekreslia v 3D scene, ale do 2D vrstvy nad nou (LabelOverlay) podla viditelnych a vybranych planet.
+ */
+public class GraphView {
+
+    public static final int BATCH_THRESHOLD = 1_000;
+
+    private Graph graph;
+    private int batchThreshold;
+    private Group planetNodes = new Group();
+    private Planet[] planets = new Planet[16];
+    private int planetCount;
+    private Shape3D[] planetShapes = new Shape3D[16];
+    private byte[] levels = new byte[16];
+    private boolean[] colored = new boolean[16];
+    private PlanetMesh[] planetMeshes;
+    private int[] meshIndices;
+    private boolean arranged; // planety su v sietach v poradi mriezky nad vsetkymi planetami
+    private LinkMesh linkMesh = new LinkMesh();
+    private SpatialGrid grid;
+    private boolean[] visible = new boolean[0];
+    private Planet[] visiblePlanets = new Planet[0];
+    private int visibleCount;
+    private boolean[] selected = new boolean[0];
+    private int[] selectedIds = new int[0]; // identifikatory planet, ktore maju v selected true
+    private int selectedCount;
+    private HighlightState highlight;
+    private TransportEngine transport;
+    private int drawnPlanets;
+    private int culledPlanets;
+    private int drawnPlanetChunks;
+    private int culledPlanetChunks;
+    private int drawnLinkChunks;
+    private int culledLinkChunks;
+
+    public GraphView(Graph graph) {
+        this(graph, BATCH_THRESHOLD);
+    }
+
+    /**
+     * @param graph zobrazovany graf
+     * @param batchThreshold pocet planet, od ktoreho sa planety vykresluju spolocne (0 vzdy, Integer.MAX_VALUE nikdy)
+     */
+    GraphView(Graph graph, int batchThreshold) {
+        this.graph = graph;
+        this.batchThreshold = batchThreshold;
+        for (Planet planet: graph.getPlanets()) {
+            TextureCache.request(planet.getTextureIndex()); // textury sa zacnu dekodovat paralelne
+        }
+    }
+
+    /**
+     *
+     * @return zobrazovana instancia grafu
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     *
+     * @return skupina objektov planet, treba ju raz pridat do sceny
+     */
+    public Group getPlanetNodes() {
+        return planetNodes;
+    }
+
+    /**
+     *
+     * @return graficke objekty planet (samostatne planety alebo spolocne siete)
+     */
+    public List<Node> getPlanetShapes() {
+        return Collections.unmodifiableList(planetNodes.getChildren());
+    }
+
+    /**
+     *
+     * @param planet instancia vrcholu
+     * @return samostatny objekt planety alebo null, ak sa planety vykresluju spolocne
+     */
+    public Shape3D getPlanetShape(Planet planet) {
+        return isBatched() ? null : planetShapes[planet.getId()];
+    }
+
+    /**
+     *
+     * @return siete trojuholnikov, v ktorych su vykreslene spoje grafu
+     */
+    public LinkMesh getLinkMesh() {
+        return linkMesh;
+    }
+
+    /**
+     *
+     * @return true, ak sa planety vykresluju spolocne po texturach
+     */
+    public boolean isBatched() {
+        return planetMeshes != null;
+    }
+
+    /**
+     * Vytvori graficke objekty dalsich planet. Ak pocet planet dosiahne hranicu,
+     * prevedie aj doterajsie planety zo samostatnych objektov do spolocnych sieti
+     * @param added planety v poradi ich identifikatorov
+     */
+    public void addPlanets(List<Planet> added) {
+        if (!isBatched() && planetCount + added.size() >= batchThreshold) {
+            planetNodes.getChildren().clear();
+            planetShapes = null;
+            levels = null;
+            colored = null;
+            planetMeshes = new PlanetMesh[TextureCache.TEXTURE_COUNT];
+            meshIndices = new int[planets.length];
+            addToMeshes(Arrays.asList(planets).subList(0, planetCount));
+        }
+        for (Planet planet: added) {
+            if (planetCount == planets.length) {
+                planets = Arrays.copyOf(planets, planetCount * 2);
+                if (isBatched()) {
+                    meshIndices = Arrays.copyOf(meshIndices, planets.length);
+                } else {
+                    planetShapes = Arrays.copyOf(planetShapes, planets.length);
+                    levels = Arrays.copyOf(levels, planets.length);
+                    colored = Arrays.copyOf(colored, planets.length);
+                }
+            }
+            planets[planetCount++] = planet;
+            if (!isBatched()) {
+                Shape3D shape = Preparer.preparePlanetShape(planet, PlanetLod.MEDIUM);
+                planetShapes[planet.getId()] = shape;
+                levels[planet.getId()] = PlanetLod.MEDIUM;
+                planetNodes.getChildren().add(shape);
+            }
+        }
+        if (isBatched()) {
+            addToMeshes(added);
+        }
+    }
+
+    /**
+     * Zafarbi planetu jednou farbou namiesto textury, planety rovnakej farby zdielaju material (MaterialRegistry)
+     * @param planet instancia vrcholu
+     * @param color farba
+     */
+    public void setPlanetColor(Planet planet, Color color) {
+        if (isBatched()) {
+            planetMeshes[planet.getTextureIndex()].setColor(meshIndices[planet.getId()], color);
+        } else {
+            planetShapes[planet.getId()].setMaterial(MaterialRegistry.get(color));
+            colored[planet.getId()] = true;
+        }
+    }
+
+    /**
+     * Vrati planete jej texturu
+     * @param planet instancia vrcholu
+     */
+    public void resetPlanetColor(Planet planet) {
+        if (isBatched()) {
+            planetMeshes[planet.getTextureIndex()].resetColor(meshIndices[planet.getId()]);
+        } else {
+            planetShapes[planet.getId()].setMaterial(MaterialRegistry.get(planet.getColor(), planet.getTextureIndex()));
+            colored[planet.getId()] = false;
+        }
+    }
+
+    /**
+     *
+     * @return zvyraznenie planet a spojov, vytvori sa pri prvom pouziti nad uplne nacitanym grafom
+     */
+    public HighlightState getHighlight() {
+        if (highlight == null) {
+            highlight = new HighlightState(this);
+        }
+        return highlight;
+    }
+
+    /**
+     *
+     * @return presun tovarov grafu, vytvori sa pri prvom zapnuti a pri dalsich sa pouzije znovu
+     */
+    public TransportEngine getTransport() {
+        if (transport == null) {
+            transport = new TransportEngine(graph.getProducts());
+        }
+        return transport;
+    }
+
+    /**
+     * Prenesie zmeny farieb planet a spojov do zobrazenia
+     */
+    public void apply() {
+        if (isBatched()) {
+            for (PlanetMesh mesh: planetMeshes) {
+                if (mesh != null) {
+                    mesh.apply();
+                }
+            }
+        }
+        linkMesh.apply();
+    }
+
+    /**
+     * Najde planetu, na ktoru ukazuje vysledok vyberu mysou
+     * @param result vysledok vyberu (napr. MouseEvent.getPickResult())
+     * @return zasiahnuta planeta alebo null
+     */
+    public Planet pickPlanet(PickResult result) {
+        if (isBatched()) {
+            return PlanetMesh.getPlanet(result);
+        }
+        if (result.getIntersectedNode() != null && result.getIntersectedNode().getUserData() instanceof Planet) {
+            return (Planet) result.getIntersectedNode().getUserData();
+        }
+        return null;
+    }
+
+    /**
+     * Oznaci planety, ktorych nazvy sa kreslia prednostne (LabelOverlay)
+     * @param planets vybrane planety, napr. najdena cesta alebo komponent
+     */
+    public void setSelected(Collection<Planet> planets) {
+        for (int i = 0; i < selectedCount; i++) {
+            selected[selectedIds[i]] = false;
+        }
+        selectedCount = 0;
+        if (selected.length < this.planets.length) { // po nacitani dalsich planet
+            selected = new boolean[this.planets.length];
+            selectedIds = new int[this.planets.length];
+        }
+        for (Planet planet: planets) {
+            if (!selected[planet.getId()]) {
+                selected[planet.getId()] = true;
+                selectedIds[selectedCount++] = planet.getId();
+            }
+        }
+    }
+
+    /**
+     *
+     * @param planet instancia vrcholu
+     * @return true, ak je planeta vybrana (setSelected)
+     */
+    public boolean isSelected(Planet planet) {
+        return planet.getId() < selected.length && selected[planet.getId()];
+    }
+
+    /**
+     * Skryje objekty mimo zorneho pola kamery: samostatne planety jednotlivo,
+     * spolocne siete planet a spojov po celych sietach
+     * @param projector premietanie z aktualneho pohladu kamery
+     */
+    public void cull(ViewProjector projector) {
+        if (grid == null || grid.size() != planetCount) { // po nacitani dalsich planet
+            buildGrid();
+        }
+        // skryju sa planety viditelne pri minulom orezavani, policka mimo zorneho pola sa vobec neprechadzaju
+        for (int i = 0; i < visibleCount; i++) {
+            visible[visiblePlanets[i].getId()] = false;
+        }
+        int previousCount = visibleCount;
+        Planet[] previous = isBatched() ? null : Arrays.copyOf(visiblePlanets, previousCount);
+        visibleCount = grid.cull(projector, visiblePlanets);
+        for (int i = 0; i < visibleCount; i++) {
+            visible[visiblePlanets[i].getId()] = true;
+        }
+        drawnPlanets = visibleCount;
+        culledPlanets = planetCount - visibleCount;
+        drawnPlanetChunks = 0;
+        culledPlanetChunks = 0;
+        if (isBatched()) {
+            for (PlanetMesh mesh: planetMeshes) {
+                if (mesh != null) {
+                    int drawnChunks = mesh.cull(projector);
+                    drawnPlanetChunks += drawnChunks;
+                    culledPlanetChunks += mesh.getChunkCount() - drawnChunks;
+                }
+            }
+        } else {
+            for (int i = 0; i < previousCount; i++) {
+                planetShapes[previous[i].getId()].setVisible(visible[previous[i].getId()]);
+            }
+            for (int i = 0; i < visibleCount; i++) {
+                planetShapes[visiblePlanets[i].getId()].setVisible(true);
+            }
+        }
+        drawnLinkChunks = linkMesh.cull(projector);
+        culledLinkChunks = linkMesh.getViews().size() - drawnLinkChunks;
+    }
+
+    /**
+     * Po nacitani celeho grafu rozdeli planety a spoje do sieti nanovo podla policok priestorovej mriezky nad celym grafom.
+     * Pocas postupneho nacitavania (GraphLoader) sa planety zoraduju len v ramci jednej davky, takze jedna siet
+     * by inak obsahovala planety z celeho grafu a spoje su v sietach v poradi identifikatorov.
+     * Vola sa pred zvyraznovanim, planety a spoje dostanu spat texturu a predvolenu farbu
+     */
+    public void arrangeChunks() {
+        buildGrid();
+        List<Planet> ordered = grid.getPlanets();
+        if (isBatched() && !arranged) {
+            for (PlanetMesh mesh: planetMeshes) {
+                if (mesh != null) {
+                    mesh.clear();
+                }
+            }
+            fillMeshes(ordered);
+            arranged = true;
+        }
+        // spoje zoradene podla poradia planety, z ktorej vychadzaju (counting sort)
+        int[] rank = new int[planets.length];
+        for (int i = 0; i < ordered.size(); i++) {
+            rank[ordered.get(i).getId()] = i;
+        }
+        List<Link> links = graph.getLinks();
+        int[] start = new int[planetCount + 1];
+        for (Link link: links) {
+            start[rank[link.getFrom().getId()] + 1]++;
+        }
+        for (int i = 0; i < planetCount; i++) {
+            start[i + 1] += start[i];
+        }
+        Link[] sorted = new Link[links.size()];
+        for (Link link: links) {
+            sorted[start[rank[link.getFrom().getId()]]++] = link;
+        }
+        linkMesh.arrange(Arrays.asList(sorted));
+    }
+
+    /**
+     *
+     * @return planety, ktore pri poslednom orezavani ostali v zornom poli
+     */
+    public List<Planet> getVisiblePlanets() {
+        return Arrays.asList(visiblePlanets).subList(0, visibleCount);
+    }
+
+    /**
+     *
+     * @return pocet planet, ktore pri poslednom orezavani ostali v zornom poli
+     */
+    public int getDrawnPlanets() {
+        return drawnPlanets;
+    }
+
+    /**
+     *
+     * @return pocet planet, ktore boli pri poslednom orezavani mimo zorneho pola
+     */
+    public int getCulledPlanets() {
+        return culledPlanets;
+    }
+
+    /**
+     *
+     * @return pocet zobrazenych spolocnych sieti planet (PlanetMesh), 0 ak sa planety vykresluju samostatne
+     */
+    public int getDrawnPlanetChunks() {
+        return drawnPlanetChunks;
+    }
+
+    /**
+     *
+     * @return pocet skrytych spolocnych sieti planet, 0 ak sa planety vykresluju samostatne
+     */
+    public int getCulledPlanetChunks() {
+        return culledPlanetChunks;
+    }
+
+    /**
+     *
+     * @return pocet zobrazenych sieti spojov (LinkMesh)
+     */
+    public int getDrawnLinkChunks() {
+        return drawnLinkChunks;
+    }
+
+    /**
+     *
+     * @return pocet skrytych sieti spojov
+     */
+    public int getCulledLinkChunks() {
+        return culledLinkChunks;
+    }
+
+    /**
+     *
+     * @param planet instancia vrcholu
+     * @return false, ak bola planeta pri poslednom orezavani mimo zorneho pola
+     */
+    public boolean isVisible(Planet planet) {
+        return grid == null || planet.getId() >= visible.length || visible[planet.getId()];
+    }
+
+    /**
+     * Vyberie kazdej samostatnej viditelnej planete uroven podrobnosti podla jej velkosti na obrazovke (PlanetLod).
+     * Spolocne siete planet maju pevne nizke delenie
+     * @param projector premietanie z aktualneho pohladu kamery
+     */
+    public void updateLevelOfDetail(ViewProjector projector) {
+        if (isBatched()) {
+            return;
+        }
+        List<Planet> candidates = grid == null ? Arrays.asList(planets).subList(0, planetCount) : getVisiblePlanets();
+        for (Planet planet: candidates) {
+            double radius = projector.projectedRadius(planet.getX(), planet.getY(), planet.getZ(), planet.getRadius());
+            int level = PlanetLod.chooseLevel(radius, levels[planet.getId()]);
+            if (level != levels[planet.getId()]) {
+                levels[planet.getId()] = (byte) level;
+                ((MeshView) planetShapes[planet.getId()]).setMesh(PlanetLod.getMesh(level));
+            }
+        }
+    }
+
+    /**
+     * Nastavi texturam vsetkych planet aktualnu kvalitu (TextureCache.setBetterQuality),
+     * zafarbene planety ostanu zafarbene
+     */
+    public void refreshTextures() {
+        if (isBatched()) {
+            for (PlanetMesh mesh: planetMeshes) {
+                if (mesh != null) {
+                    mesh.loadTexture();
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < planetCount; i++) {
+            Planet planet = planets[i];
+            if (!colored[planet.getId()]) {
+                planetShapes[planet.getId()].setMaterial(MaterialRegistry.get(planet.getColor(), planet.getTextureIndex()));
+            }
+        }
+    }
+
+    /**
+     * Vytvori priestorovu mriezku nad vsetkymi doteraz pridanymi planetami, samostatne planety skryje do najblizsieho orezavania
+     */
+    private void buildGrid() {
+        grid = new SpatialGrid(Arrays.asList(planets).subList(0, planetCount));
+        visible = new boolean[planets.length];
+        visiblePlanets = new Planet[planets.length];
+        visibleCount = 0;
+        if (!isBatched()) {
+            for (int i = 0; i < planetCount; i++) {
+                planetShapes[planets[i].getId()].setVisible(false);
+            }
+        }
+    }
+
+    /**
+     * Prida planety do spolocnych sieti v poradi policok priestorovej mriezky,
+     * takze kazda siet obsahuje planety z jednej oblasti a da sa cela skryt
+     */
+    private void addToMeshes(List<Planet> added) {
+        arranged = added.size() == planetCount; // vsetky planety naraz, napr. Preparer.prepareChildren
+        fillMeshes(new SpatialGrid(added).getPlanets());
+    }
+
+    /**
+     * Prida planety do spolocnych sieti v zadanom poradi
+     */
+    private void fillMeshes(List<Planet> ordered) {
+        for (Planet planet: ordered) {
+            int texture = planet.getTextureIndex();
+            if (planetMeshes[texture] == null) {
+                planetMeshes[texture] = new PlanetMesh(texture, planetNodes);
+            }
+            meshIndices[planet.getId()] = planetMeshes[texture].add(planet);
+        }
+        for (PlanetMesh mesh: planetMeshes) {
+            if (mesh != null) {
+                mesh.apply();
+            }
+        }
+    }
+}
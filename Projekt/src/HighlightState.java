@@ -0,0 +1,216 @@
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Zvyraznenie planet a spojov grafu (najdena cesta, komponent, vsetky komponenty).
+ * Stav tvori zakladna farba planet (null = textura) a vlastne farby vybranych planet a spojov, ulozene
+ * v poliach indexovanych identifikatormi spolu so zoznamom zafarbenych identifikatorov.
+ * Spoje kazdej planety su v indexe vo formate CSR (ako CompactGraph), zvyraznenie k planet prejde len ich spoje.
+ * Novy stav sa porovna s predchadzajucim a v zobrazeni (GraphView) sa zmenia len planety a spoje, ktorych farba sa zmenila;
+ * ak sa zakladna farba nemeni, prechadzaju sa len zafarbene planety stareho a noveho stavu.
+ */
+public class HighlightState {
+
+    public static final double LINK_RADIUS = 3;
+
+    private final GraphView view;
+    private final int[] linkOffsets;
+    private final int[] planetLinks; // identifikatory spojov planety v na poziciach linkOffsets[v] az linkOffsets[v + 1] - 1
+    private Color base;
+    private Color[] planetColors;
+    private int[] planetIds;
+    private int planetCount;
+    private Color[] linkColors;
+    private int[] linkIds;
+    private int linkCount;
+    // rozpracovany novy stav, po porovnani sa vymeni s aktualnym
+    private Color[] nextPlanetColors;
+    private int[] nextPlanetIds;
+    private int nextPlanetCount;
+    private Color[] nextLinkColors;
+    private int[] nextLinkIds;
+    private int nextLinkCount;
+
+    /**
+     * @param view zobrazenie grafu, ktoreho planety a spoje sa zvyraznuju
+     */
+    public HighlightState(GraphView view) {
+        this.view = view;
+        int planets = view.getGraph().getPlanets().size();
+        int links = view.getGraph().getLinks().size();
+        planetColors = new Color[planets];
+        planetIds = new int[planets];
+        nextPlanetColors = new Color[planets];
+        nextPlanetIds = new int[planets];
+        linkColors = new Color[links];
+        linkIds = new int[links];
+        nextLinkColors = new Color[links];
+        nextLinkIds = new int[links];
+        linkOffsets = new int[planets + 1];
+        for (Link link: view.getGraph().getLinks()) {
+            linkOffsets[link.getFrom().getId() + 1]++;
+            linkOffsets[link.getTo().getId() + 1]++;
+        }
+        for (int v = 0; v < planets; v++) {
+            linkOffsets[v + 1] += linkOffsets[v];
+        }
+        planetLinks = new int[linkOffsets[planets]];
+        int[] next = Arrays.copyOf(linkOffsets, planets);
+        for (Link link: view.getGraph().getLinks()) {
+            planetLinks[next[link.getFrom().getId()]++] = link.getId();
+            planetLinks[next[link.getTo().getId()]++] = link.getId();
+        }
+    }
+
+    /**
+     * Zvyrazni planety a spoje medzi nimi farbou, ostatne planety stlmi
+     * @param planets zvyraznene planety, napr. najdena cesta alebo komponent
+     * @param color farba zvyraznenia
+     * @param dimmed farba ostatnych planet
+     */
+    public void highlight(Collection<Planet> planets, Color color, Color dimmed) {
+        for (Planet planet: planets) {
+            colorPlanet(planet.getId(), color);
+        }
+        List<Link> links = view.getGraph().getLinks();
+        for (Planet planet: planets) {
+            for (int i = linkOffsets[planet.getId()]; i < linkOffsets[planet.getId() + 1]; i++) {
+                Link link = links.get(planetLinks[i]);
+                // spoj sa zvyrazni, ak su zvyraznene oba jeho konce
+                if (nextPlanetColors[link.getFrom().getId()] != null && nextPlanetColors[link.getTo().getId()] != null) {
+                    colorLink(link.getId(), color);
+                }
+            }
+        }
+        commit(dimmed);
+        view.setSelected(planets); // nazvy zvyraznenych planet maju prednost
+    }
+
+    /**
+     * Zafarbi kazdy komponent grafu vlastnou farbou
+     * @param labels cislo komponentu pre kazdu planetu podla identifikatora (Algorithms.componentLabels)
+     * @param colors farba pre kazde cislo komponentu
+     */
+    public void showComponents(int[] labels, Color[] colors) {
+        for (Planet planet: view.getGraph().getPlanets()) {
+            colorPlanet(planet.getId(), colors[labels[planet.getId()]]);
+        }
+        for (Link link: view.getGraph().getLinks()) {
+            // oba konce spoja su v tom istom komponente
+            colorLink(link.getId(), colors[labels[link.getFrom().getId()]]);
+        }
+        commit(null);
+        view.setSelected(Collections.emptyList());
+    }
+
+    /**
+     * Zrusi zvyraznenie, planety dostanu spat textury a spoje predvolenu farbu a hrubku
+     */
+    public void clear() {
+        commit(null);
+        view.setSelected(Collections.emptyList());
+    }
+
+    private void colorPlanet(int id, Color color) {
+        if (nextPlanetColors[id] == null) {
+            nextPlanetIds[nextPlanetCount++] = id;
+        }
+        nextPlanetColors[id] = color;
+    }
+
+    private void colorLink(int id, Color color) {
+        if (nextLinkColors[id] == null) {
+            nextLinkIds[nextLinkCount++] = id;
+        }
+        nextLinkColors[id] = color;
+    }
+
+    /**
+     * Prenesie do zobrazenia rozdiel medzi aktualnym a rozpracovanym stavom a rozpracovany stav nastavi ako aktualny
+     * @param nextBase zakladna farba planet noveho stavu
+     */
+    private void commit(Color nextBase) {
+        if (equal(base, nextBase)) {
+            for (int i = 0; i < planetCount; i++) {
+                if (nextPlanetColors[planetIds[i]] == null) { // zafarbene planety noveho stavu sa spracuju nizsie
+                    updatePlanet(planetIds[i], nextBase);
+                }
+            }
+            for (int i = 0; i < nextPlanetCount; i++) {
+                updatePlanet(nextPlanetIds[i], nextBase);
+            }
+        } else {
+            for (Planet planet: view.getGraph().getPlanets()) {
+                updatePlanet(planet.getId(), nextBase);
+            }
+        }
+        for (int i = 0; i < linkCount; i++) {
+            if (nextLinkColors[linkIds[i]] == null) {
+                updateLink(linkIds[i]);
+            }
+        }
+        for (int i = 0; i < nextLinkCount; i++) {
+            updateLink(nextLinkIds[i]);
+        }
+        view.apply();
+
+        for (int i = 0; i < planetCount; i++) {
+            planetColors[planetIds[i]] = null;
+        }
+        for (int i = 0; i < linkCount; i++) {
+            linkColors[linkIds[i]] = null;
+        }
+        Color[] colors = planetColors;
+        planetColors = nextPlanetColors;
+        nextPlanetColors = colors;
+        int[] ids = planetIds;
+        planetIds = nextPlanetIds;
+        nextPlanetIds = ids;
+        planetCount = nextPlanetCount;
+        nextPlanetCount = 0;
+        colors = linkColors;
+        linkColors = nextLinkColors;
+        nextLinkColors = colors;
+        ids = linkIds;
+        linkIds = nextLinkIds;
+        nextLinkIds = ids;
+        linkCount = nextLinkCount;
+        nextLinkCount = 0;
+        base = nextBase;
+    }
+
+    private void updatePlanet(int id, Color nextBase) {
+        Color current = planetColors[id] != null ? planetColors[id] : base;
+        Color next = nextPlanetColors[id] != null ? nextPlanetColors[id] : nextBase;
+        if (equal(current, next)) {
+            return;
+        }
+        Planet planet = view.getGraph().getPlanets().get(id);
+        if (next == null) {
+            view.resetPlanetColor(planet);
+        } else {
+            view.setPlanetColor(planet, next);
+        }
+    }
+
+    private void updateLink(int id) {
+        Color current = linkColors[id];
+        Color next = nextLinkColors[id];
+        if (equal(current, next)) {
+            return;
+        }
+        LinkMesh links = view.getLinkMesh();
+        links.setColor(id, next != null ? next : LinkMesh.DEFAULT_COLOR);
+        if ((current == null) != (next == null)) {
+            links.setRadius(id, next != null ? LINK_RADIUS : LinkMesh.DEFAULT_RADIUS);
+        }
+    }
+
+    private static boolean equal(Color a, Color b) {
+        return a == null ? b == null : a.equals(b);
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * Binarna halda s minimom na vrchu nad identifikatormi vrcholov 0 az capacity - 1.
+ * Pamata si poziciu kazdeho vrcholu v halde, takze umoznuje znizit prioritu vrcholu
+ * v case O(log n). Pri praci nealokuje ziadne objekty.
+ */
+public class IndexedMinHeap {
+
+    private int[] heap;
+    private int[] positions;
+    private double[] keys;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     *
+     * @return maximalny pocet roznych vrcholov v halde
+     */
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     *
+     * @return true, ak je halda prazdna
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     *
+     * @param v identifikator vrcholu
+     * @return true, ak je vrchol prave v halde
+     */
+    public boolean contains(int v) {
+        return positions[v] != -1;
+    }
+
+    /**
+     * Vlozi vrchol do haldy, alebo mu znizi prioritu, ak uz v halde je s vyssou prioritou
+     * @param v identifikator vrcholu
+     * @param key priorita vrcholu
+     */
+    public void insertOrDecrease(int v, double key) {
+        int position = positions[v];
+        if (position == -1) {
+            position = size++;
+            heap[position] = v;
+            positions[v] = position;
+        } else if (key >= keys[v]) {
+            return;
+        }
+        keys[v] = key;
+        siftUp(position);
+    }
+
+    /**
+     * Odoberie z haldy vrchol s najmensou prioritou
+     * @return identifikator odobraneho vrcholu
+     */
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Vyprazdni haldu, cas je umerny poctu vrcholov, ktore v nej zostali
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int v = heap[position];
+        double key = keys[v];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int u = heap[parent];
+            if (keys[u] <= key) {
+                break;
+            }
+            heap[position] = u;
+            positions[u] = position;
+            position = parent;
+        }
+        heap[position] = v;
+        positions[v] = position;
+    }
+
+    private void siftDown(int position) {
+        int v = heap[position];
+        double key = keys[v];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            int u = heap[child];
+            if (key <= keys[u]) {
+                break;
+            }
+            heap[position] = u;
+            positions[u] = position;
+            position = child;
+        }
+        heap[position] = v;
+        positions[v] = position;
+    }
+}
@@ -0,0 +1,151 @@
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Nazvy planet vykreslene do jedneho 2D platna (Canvas) nad 3D scenou namiesto objektu Text pre kazdu planetu.
+ * Pri kazdej zmene pohladu sa viditelne planety premietnu na obrazovku a nazvy sa kreslia podla priority
+ * (vybrane planety, vacsi polomer, vyssi stupen). Nazov, ktory by prekryl uz nakresleny nazov, sa vynecha;
+ * obsadenost obrazovky sa sleduje v mriezke policok CELL x CELL pixelov.
+ * Planety mimo zorneho pola sa vobec nespracuvaju, cena zavisi od poctu viditelnych planet.
+ */
+public class LabelOverlay extends Canvas {
+
+    private static final Font FONT = Font.font("Verdana", 10);
+    private static final int CELL = 4;
+    private static final double GAP = 3;
+
+    private boolean[] occupied = new boolean[0];
+    private int columns;
+    private int rows;
+    private Planet[] order = new Planet[0];
+    private float[] widths = new float[0]; // namerane sirky nazvov podla identifikatorov planet, 0 = este nenamerane
+    private Graph widthsGraph;
+    private final Text measure = new Text();
+    private int drawn;
+
+    /**
+     * @param width sirka 3D sceny
+     * @param height vyska 3D sceny
+     */
+    public LabelOverlay(double width, double height) {
+        super(width, height);
+        setMouseTransparent(true); // udalosti mysi patria 3D scene pod platnom
+        measure.setFont(FONT);
+    }
+
+    /**
+     * Prekresli nazvy viditelnych planet
+     * @param view graficke zobrazenie grafu (viditelne a vybrane planety)
+     * @param projector premietanie z aktualneho pohladu kamery
+     */
+    public void draw(GraphView view, ViewProjector projector) {
+        clear();
+        prepareCells();
+        if (widthsGraph != view.getGraph()) {
+            widthsGraph = view.getGraph();
+            widths = new float[0];
+        }
+        List<Planet> visible = view.getVisiblePlanets();
+        if (order.length < visible.size()) {
+            order = new Planet[visible.size()];
+        }
+        visible.toArray(order);
+        Arrays.sort(order, 0, visible.size(), Comparator
+                .comparing((Planet planet) -> !view.isSelected(planet))
+                .thenComparing(Planet::getRadius, Comparator.reverseOrder())
+                .thenComparing(planet -> planet.getNeighbours().size(), Comparator.reverseOrder()));
+
+        GraphicsContext gc = getGraphicsContext2D();
+        gc.setFont(FONT);
+        gc.setFill(Color.WHITE);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.BOTTOM);
+        for (int i = 0; i < visible.size(); i++) {
+            Planet planet = order[i];
+            double depth = projector.depth(planet.getX(), planet.getY(), planet.getZ());
+            if (depth <= 0) {
+                continue;
+            }
+            double x = projector.screenX(planet.getX(), planet.getY(), planet.getZ());
+            double top = projector.screenY(planet.getX(), planet.getY(), planet.getZ())
+                    - projector.projectedRadius(planet.getX(), planet.getY(), planet.getZ(), planet.getRadius()) - GAP;
+            double width = labelWidth(planet);
+            double height = FONT.getSize() + 2;
+            if (reserve(x - width / 2, top - height, x + width / 2, top)) {
+                gc.fillText(planet.getData(), x, top);
+                drawn++;
+            }
+        }
+    }
+
+    /**
+     * Vymaze vsetky nazvy
+     */
+    public void clear() {
+        getGraphicsContext2D().clearRect(0, 0, getWidth(), getHeight());
+        drawn = 0;
+    }
+
+    /**
+     *
+     * @return pocet nazvov nakreslenych pri poslednom prekresleni
+     */
+    public int getDrawnCount() {
+        return drawn;
+    }
+
+    private void prepareCells() {
+        columns = (int) Math.ceil(getWidth() / CELL);
+        rows = (int) Math.ceil(getHeight() / CELL);
+        if (occupied.length < columns * rows) {
+            occupied = new boolean[columns * rows];
+        } else {
+            Arrays.fill(occupied, 0, columns * rows, false);
+        }
+    }
+
+    /**
+     * Obsadi policka pod obdlznikom nazvu, ak su vsetky volne
+     * @return false, ak je obdlznik mimo platna alebo by prekryl iny nazov
+     */
+    private boolean reserve(double left, double top, double right, double bottom) {
+        if (right < 0 || bottom < 0 || left >= getWidth() || top >= getHeight()) {
+            return false;
+        }
+        int firstColumn = Math.max(0, (int) (left / CELL));
+        int lastColumn = Math.min(columns - 1, (int) (right / CELL));
+        int firstRow = Math.max(0, (int) (top / CELL));
+        int lastRow = Math.min(rows - 1, (int) (bottom / CELL));
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (occupied[row * columns + column]) {
+                    return false;
+                }
+            }
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            Arrays.fill(occupied, row * columns + firstColumn, row * columns + lastColumn + 1, true);
+        }
+        return true;
+    }
+
+    private double labelWidth(Planet planet) {
+        if (planet.getId() >= widths.length) {
+            widths = Arrays.copyOf(widths, Math.max(planet.getId() + 1, widths.length * 2));
+        }
+        if (widths[planet.getId()] == 0) {
+            measure.setText(planet.getData());
+            widths[planet.getId()] = (float) measure.getLayoutBounds().getWidth();
+        }
+        return widths[planet.getId()];
+    }
+}
@@ -0,0 +1,328 @@
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Vsetky spoje grafu vykreslene ako niekolko velkych sieti trojuholnikov (TriangleMesh) namiesto
+ * jedneho objektu Cylinder pre kazdy spoj. Kazdy spoj je tenky trojboky hranol zo 6 vrcholov a 6 trojuholnikov,
+ * v jednej sieti (MeshView) je najviac LINKS_PER_CHUNK spojov. Spoje sa do sieti pridavaju v poradi identifikatorov,
+ * po nacitani celeho grafu sa daju preusporiadat (arrange), aby kazda siet obsahovala spoje z jednej oblasti.
+ * Farba spoja je dana texturovymi suradnicami jeho trojuholnikov, ktore ukazuju do spolocnej palety
+ * 4096 farieb (4 bity na zlozku), zmena farby teda meni len pole faces, nie material.
+ * Spoje su identifikovane svojimi identifikatormi (Link.getId()). Pouziva sa v JavaFX vlakne,
+ * zmeny farieb a hrubky sa prejavia az po zavolani apply().
+ */
+public class LinkMesh {
+
+    public static final Color DEFAULT_COLOR = Color.LIGHTGRAY;
+    public static final double DEFAULT_RADIUS = 0.2;
+
+    private static final int LINKS_PER_CHUNK = 10_000;
+    private static final int POINTS_PER_LINK = 6;
+    private static final int FACES_PER_LINK = 6;
+    private static final int PALETTE_SIDE = 64;
+    static final float[] PALETTE_TEXCOORDS = new float[PALETTE_SIDE * PALETTE_SIDE * 2];
+    private static PhongMaterial paletteMaterial;
+
+    static {
+        for (int slot = 0; slot < PALETTE_SIDE * PALETTE_SIDE; slot++) {
+            PALETTE_TEXCOORDS[slot * 2] = (slot % PALETTE_SIDE + 0.5f) / PALETTE_SIDE;
+            PALETTE_TEXCOORDS[slot * 2 + 1] = (slot / PALETTE_SIDE + 0.5f) / PALETTE_SIDE;
+        }
+    }
+
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final List<MeshView> views = new ArrayList<>();
+    private Link[] links = new Link[16];
+    private int[] positions = new int[16]; // poradie spoja v sietach podla identifikatora
+    private int size;
+
+    /**
+     * Prida spoje na koniec, v pripade potreby vytvori nove siete
+     * @param added spoje v poradi ich identifikatorov, prvy ma identifikator size()
+     * @return nove graficke objekty sieti, ktore treba pridat do sceny (vacsinou prazdny zoznam)
+     */
+    public List<MeshView> addLinks(List<Link> added) {
+        List<MeshView> created = new ArrayList<>();
+        for (Link link: added) {
+            if (link.getId() != size) {
+                throw new IllegalArgumentException("links must be added in the order of their ids: " + link);
+            }
+            if (size == links.length) {
+                links = Arrays.copyOf(links, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            links[size] = link;
+            if (size % LINKS_PER_CHUNK == 0) {
+                Chunk chunk = new Chunk();
+                chunks.add(chunk);
+                views.add(chunk.view);
+                created.add(chunk.view);
+            }
+            place(link.getId(), size);
+            size++;
+        }
+        apply();
+        return created;
+    }
+
+    /**
+     * Rozdeli spoje do sieti nanovo v zadanom poradi, susedne spoje v poradi sa dostanu do tej istej siete.
+     * Pocet sieti sa nemeni, spoje dostanu predvolenu farbu a hrubku
+     * @param ordered vsetky spoje, kazdy prave raz
+     */
+    public void arrange(List<Link> ordered) {
+        if (ordered.size() != size) {
+            throw new IllegalArgumentException("expected " + size + " links, got " + ordered.size());
+        }
+        for (Chunk chunk: chunks) {
+            chunk.count = 0;
+            chunk.bounds.clear();
+        }
+        for (int position = 0; position < size; position++) {
+            place(ordered.get(position).getId(), position);
+        }
+        apply();
+    }
+
+    /**
+     *
+     * @return vsetky graficke objekty sieti spojov
+     */
+    public List<MeshView> getViews() {
+        return Collections.unmodifiableList(views);
+    }
+
+    /**
+     *
+     * @return pocet spojov
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Nastavi farbu spoja (zaokruhlenu na farbu z palety)
+     * @param link identifikator spoja
+     * @param color farba
+     */
+    public void setColor(int link, Color color) {
+        writeColor(link, color);
+    }
+
+    /**
+     * Nastavi hrubku spoja
+     * @param link identifikator spoja
+     * @param radius polomer hranola
+     */
+    public void setRadius(int link, double radius) {
+        writePoints(link, radius);
+    }
+
+    /**
+     * Vrati vsetkym spojom predvolenu farbu a hrubku
+     */
+    public void reset() {
+        for (int i = 0; i < size; i++) {
+            writePoints(i, DEFAULT_RADIUS);
+            writeColor(i, DEFAULT_COLOR);
+        }
+    }
+
+    /**
+     * Skryje siete, ktore su cele mimo zorneho pola kamery
+     * @param projector premietanie z aktualneho pohladu kamery
+     * @return pocet zobrazenych sieti
+     */
+    public int cull(ViewProjector projector) {
+        int drawn = 0;
+        for (Chunk chunk: chunks) {
+            boolean visible = chunk.bounds.isVisible(projector);
+            chunk.view.setVisible(visible);
+            if (visible) {
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Prenesie zmenene vrcholy a farby do sieti, ktore vykresluje JavaFX
+     */
+    public void apply() {
+        for (Chunk chunk: chunks) {
+            chunk.apply();
+        }
+    }
+
+    /**
+     * Ulozi spoj na poziciu v sietach s predvolenou farbou a hrubkou
+     */
+    private void place(int link, int position) {
+        positions[link] = position;
+        chunks.get(position / LINKS_PER_CHUNK).grow();
+        writePoints(link, DEFAULT_RADIUS);
+        writeColor(link, DEFAULT_COLOR);
+    }
+
+    private void writePoints(int link, double radius) {
+        int position = positions[link];
+        Chunk chunk = chunks.get(position / LINKS_PER_CHUNK);
+        int offset = (position % LINKS_PER_CHUNK) * POINTS_PER_LINK * 3;
+        Planet a = links[link].getFrom();
+        Planet b = links[link].getTo();
+        double dx = b.getX() - a.getX();
+        double dy = b.getY() - a.getY();
+        double dz = b.getZ() - a.getZ();
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0) {
+            dx = 0;
+            dy = 1;
+            dz = 0;
+        } else {
+            dx /= length;
+            dy /= length;
+            dz /= length;
+        }
+        // u a v su kolme na smer spoja a na seba navzajom
+        double hx = Math.abs(dy) < 0.9 ? 0 : 1;
+        double hy = Math.abs(dy) < 0.9 ? 1 : 0;
+        double ux = -dz * hy;
+        double uy = dz * hx;
+        double uz = dx * hy - dy * hx;
+        double uLength = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        ux /= uLength;
+        uy /= uLength;
+        uz /= uLength;
+        double vx = dy * uz - dz * uy;
+        double vy = dz * ux - dx * uz;
+        double vz = dx * uy - dy * ux;
+        for (int k = 0; k < 3; k++) {
+            double angle = 2 * Math.PI * k / 3;
+            double ox = radius * (Math.cos(angle) * ux + Math.sin(angle) * vx);
+            double oy = radius * (Math.cos(angle) * uy + Math.sin(angle) * vy);
+            double oz = radius * (Math.cos(angle) * uz + Math.sin(angle) * vz);
+            int start = offset + k * 3;
+            int end = offset + (k + 3) * 3;
+            chunk.points[start] = (float) (a.getX() + ox);
+            chunk.points[start + 1] = (float) (a.getY() + oy);
+            chunk.points[start + 2] = (float) (a.getZ() + oz);
+            chunk.points[end] = (float) (b.getX() + ox);
+            chunk.points[end + 1] = (float) (b.getY() + oy);
+            chunk.points[end + 2] = (float) (b.getZ() + oz);
+        }
+        chunk.bounds.add(a.getX(), a.getY(), a.getZ(), radius);
+        chunk.bounds.add(b.getX(), b.getY(), b.getZ(), radius);
+        chunk.pointsDirty = true;
+    }
+
+    /**
+     * Zapise trojuholniky spoja: pre kazdu z 3 stien dva trojuholniky medzi vrcholmi k, k + 1
+     * na zaciatku (0 az 2) a na konci (3 az 5) spoja, vsetky s texturovou suradnicou farby
+     */
+    private void writeColor(int link, Color color) {
+        int position = positions[link];
+        Chunk chunk = chunks.get(position / LINKS_PER_CHUNK);
+        int first = (position % LINKS_PER_CHUNK) * POINTS_PER_LINK;
+        int offset = (position % LINKS_PER_CHUNK) * FACES_PER_LINK * 6;
+        int slot = paletteSlot(color);
+        int[] faces = chunk.faces;
+        for (int k = 0; k < 3; k++) {
+            int a0 = first + k;
+            int a1 = first + (k + 1) % 3;
+            int b0 = a0 + 3;
+            int b1 = a1 + 3;
+            int i = offset + k * 12;
+            faces[i] = a0;
+            faces[i + 2] = b0;
+            faces[i + 4] = a1;
+            faces[i + 6] = a1;
+            faces[i + 8] = b0;
+            faces[i + 10] = b1;
+            for (int j = 1; j < 12; j += 2) {
+                faces[i + j] = slot;
+            }
+        }
+        chunk.facesDirty = true;
+    }
+
+    /**
+     * @return index farby v palete (aj texturovej suradnice v PALETTE_TEXCOORDS)
+     */
+    static int paletteSlot(Color color) {
+        int r = (int) Math.round(color.getRed() * 15);
+        int g = (int) Math.round(color.getGreen() * 15);
+        int b = (int) Math.round(color.getBlue() * 15);
+        return r << 8 | g << 4 | b;
+    }
+
+    /**
+     * Spolocny material vsetkych sieti spojov (aj tovarov, TransportEngine): textura s paletou vsetkych 4096 farieb
+     */
+    static PhongMaterial getPaletteMaterial() {
+        if (paletteMaterial == null) {
+            WritableImage palette = new WritableImage(PALETTE_SIDE, PALETTE_SIDE);
+            PixelWriter writer = palette.getPixelWriter();
+            for (int slot = 0; slot < PALETTE_SIDE * PALETTE_SIDE; slot++) {
+                writer.setColor(slot % PALETTE_SIDE, slot / PALETTE_SIDE,
+                        Color.rgb((slot >> 8) * 17, (slot >> 4 & 0xF) * 17, (slot & 0xF) * 17));
+            }
+            paletteMaterial = new PhongMaterial(Color.WHITE);
+            paletteMaterial.setDiffuseMap(palette);
+        }
+        return paletteMaterial;
+    }
+
+    /**
+     * Jedna siet s najviac LINKS_PER_CHUNK spojmi a jej pracovne polia
+     */
+    private static class Chunk {
+
+        final TriangleMesh mesh = new TriangleMesh();
+        final MeshView view = new MeshView(mesh);
+        final ChunkBounds bounds = new ChunkBounds();
+        float[] points = new float[0];
+        int[] faces = new int[0];
+        int count;
+        boolean pointsDirty;
+        boolean facesDirty;
+
+        Chunk() {
+            mesh.getTexCoords().setAll(PALETTE_TEXCOORDS);
+            view.setMaterial(getPaletteMaterial());
+            view.setCullFace(CullFace.NONE); // hranoly su tenke, netreba riesit orientaciu trojuholnikov
+        }
+
+        /**
+         * Prida miesto pre dalsi spoj, polia rastu postupne az po LINKS_PER_CHUNK spojov
+         */
+        void grow() {
+            count++;
+            if (count * POINTS_PER_LINK * 3 > points.length) {
+                int capacity = Math.min(LINKS_PER_CHUNK, Math.max(64, count * 2));
+                points = Arrays.copyOf(points, capacity * POINTS_PER_LINK * 3);
+                faces = Arrays.copyOf(faces, capacity * FACES_PER_LINK * 6);
+            }
+        }
+
+        void apply() {
+            if (pointsDirty) {
+                mesh.getPoints().setAll(points, 0, count * POINTS_PER_LINK * 3);
+                pointsDirty = false;
+            }
+            if (facesDirty) {
+                mesh.getFaces().setAll(faces, 0, count * FACES_PER_LINK * 6);
+                facesDirty = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Spolocne materialy pre objekty sceny: pre kazdu kombinaciu farby, textury a kvality textury existuje
+ * najviac jeden PhongMaterial, ktory zdielaju vsetky objekty s touto kombinaciou. Vratene materialy sa nesmu menit.
+ * Register drzi materialy len slabymi referenciami, material, ktory uz ziadny objekt nepouziva,
+ * uvolni garbage collector a jeho zaznam sa pri dalsej poziadavke odstrani.
+ */
+public class MaterialRegistry {
+
+    private static final int NO_TEXTURE = -1;
+    private static final Map<Long, MaterialReference> MATERIALS = new HashMap<>();
+    private static final ReferenceQueue<PhongMaterial> RELEASED = new ReferenceQueue<>();
+
+    /**
+     * Vrati spolocny material jednej farby bez textury
+     * @param color farba
+     * @return zdielany material
+     */
+    public static PhongMaterial get(Color color) {
+        return get(color, NO_TEXTURE, false);
+    }
+
+    /**
+     * Vrati spolocny material s texturou planety v aktualne nastavenej kvalite (TextureCache), zafarbeny farbou.
+     * Kym sa textura dekoduje, material ma len farbu, textura sa prida po dekodovani
+     * @param color farba (odtien) textury
+     * @param textureIndex index textury
+     * @return zdielany material
+     */
+    public static PhongMaterial get(Color color, int textureIndex) {
+        return get(color, textureIndex, TextureCache.isBetterQuality());
+    }
+
+    /**
+     *
+     * @return pocet materialov v registri (vratane este neuvolnenych nepouzivanych)
+     */
+    public static synchronized int size() {
+        purge();
+        return MATERIALS.size();
+    }
+
+    private static synchronized PhongMaterial get(Color color, int textureIndex, boolean betterQuality) {
+        purge();
+        long key = key(color, textureIndex, betterQuality);
+        MaterialReference reference = MATERIALS.get(key);
+        PhongMaterial material = reference == null ? null : reference.get();
+        if (material == null) {
+            material = new PhongMaterial(color);
+            if (textureIndex != NO_TEXTURE) {
+                attachTexture(material, TextureCache.request(textureIndex, betterQuality));
+            }
+            MATERIALS.put(key, new MaterialReference(key, material));
+        }
+        return material;
+    }
+
+    private static void attachTexture(PhongMaterial material, CompletableFuture<Image> texture) {
+        if (texture.isDone() && !texture.isCompletedExceptionally()) {
+            material.setDiffuseMap(texture.join());
+        } else {
+            texture.thenAccept(image -> Platform.runLater(() -> material.setDiffuseMap(image)));
+        }
+    }
+
+    /**
+     * Kluc materialu: farba v 32 bitoch ARGB, index textury a kvalita textury nad nimi
+     */
+    private static long key(Color color, int textureIndex, boolean betterQuality) {
+        long argb = Math.round(color.getOpacity() * 255) << 24
+                | Math.round(color.getRed() * 255) << 16
+                | Math.round(color.getGreen() * 255) << 8
+                | Math.round(color.getBlue() * 255);
+        return argb | (long) (textureIndex + 1) << 32 | (betterQuality ? 1L << 48 : 0);
+    }
+
+    /**
+     * Odstrani zaznamy materialov, ktore uz uvolnil garbage collector
+     */
+    private static void purge() {
+        Reference<? extends PhongMaterial> released;
+        while ((released = RELEASED.poll()) != null) {
+            MaterialReference reference = (MaterialReference) released;
+            MATERIALS.remove(reference.key, reference); // zaznam mohol byt medzitym nahradeny novym materialom
+        }
+    }
+
+    private static class MaterialReference extends WeakReference<PhongMaterial> {
+
+        final long key;
+
+        MaterialReference(long key, PhongMaterial material) {
+            super(material, RELEASED);
+            this.key = key;
+        }
+    }
+}
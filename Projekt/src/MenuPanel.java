@@ -1,7 +1,6 @@
-import javafx.animation.Timeline;
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
@@ -9,8 +8,6 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.PhongMaterial;
-import javafx.scene.shape.Cylinder;
 import javafx.scene.shape.Sphere;
 import javafx.scene.text.Text;
 import javafx.stage.FileChooser;
@@ -23,12 +20,17 @@ import java.util.stream.Collectors;
 
 public class MenuPanel extends VBox {
 
+    private static final Color DIMMED = Color.rgb(35, 35, 35, 0.2);
+
     private SpaceGraph3D spaceGraph;
-    private Timeline timeline;
+    private PlanetRotation rotation;
+    private AlgorithmService algorithms = new AlgorithmService();
+    private QueryCache queries = new QueryCache(256);
+    private ProgressBar progressBar = new ProgressBar();
 
     public MenuPanel(SpaceGraph3D spaceGraph) {
         this.spaceGraph = spaceGraph;
-        this.timeline = Preparer.preparePlanetRotationAnimation(spaceGraph.getPlanetGroup());
+        this.rotation = new PlanetRotation(spaceGraph::getGraphView);
         preparePanel();
     }
 
@@ -40,6 +42,14 @@ public class MenuPanel extends VBox {
         setAlignment(Pos.CENTER);
         setSpacing(10);
 
+        progressBar.setPrefWidth(160);
+        progressBar.setVisible(false);
+        algorithms.setOnFailure(this::showAlgorithmError);
+        algorithms.lastTaskProperty().addListener((observable, oldTask, task) -> {
+            progressBar.progressProperty().bind(task.progressProperty());
+            progressBar.visibleProperty().bind(task.runningProperty());
+        });
+
         setButtonActions();
         panelUpdate();
     }
@@ -52,6 +62,7 @@ public class MenuPanel extends VBox {
                 getGraphInfo(),
                 new Separator(),
                 getButtonsGrid(),
+                progressBar,
                 new Separator(),
                 getLegendSnippet(),
                 Buttons.LEGEND
@@ -70,12 +81,22 @@ public class MenuPanel extends VBox {
         grid.add(Buttons.COMPONENTFINDER, 0, 4);
         grid.add(Buttons.ALLCOMPONENTS, 0, 5);
         grid.add(Buttons.RELOAD, 0, 6);
+        grid.add(Buttons.TEXTURES, 0, 7);
+        grid.add(Buttons.CANCEL, 0, 8);
         return grid;
 
     }
 
     private void makeDefaultState() {
-        spaceGraph.reloadGraph();
+        stopTransport();
+        spaceGraph.getGraphView().getHighlight().clear();
+        spaceGraph.requestViewUpdate();
+    }
+
+    private void stopTransport() {
+        if (spaceGraph.packagesVisible()) {
+            spaceGraph.setTransport(false);
+        }
         Buttons.TRANSPORT.setText("Turn Transport ON");
     }
 
@@ -91,11 +112,11 @@ public class MenuPanel extends VBox {
 
     private void actionRotationButton() {
         if (!spaceGraph.planetsRotating()) {
-            timeline.play();
+            rotation.start();
             spaceGraph.setRotation(true);
             Buttons.ROTATION.setText("Turn Rotation OFF");
         } else {
-            timeline.stop();
+            rotation.stop();
             spaceGraph.setRotation(false);
             Buttons.ROTATION.setText("Turn Rotation ON");
         }
@@ -107,52 +128,71 @@ public class MenuPanel extends VBox {
         if (defaultDir.isDirectory()) {
             fileChooser.setInitialDirectory(defaultDir);
         }
-        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Text Files", "*.txt"));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Graph Files", "*.txt", "*" + GraphBinaryFile.EXTENSION));
         File file = fileChooser.showOpenDialog(spaceGraph.getMainGroup().getScene().getWindow());
 
         if (file != null) {
-            if (file.getName().matches("file(10|25|50|75|118|4946)(|Redsi|Hustejsi).txt|sun.txt")) {
-                spaceGraph.clearGraph();
+            if (file.getName().matches("(file(10|25|50|75|118|4946)(|Redsi|Hustejsi)|sun|synthetic\\d+)\\.(txt|sg3d)")) {
+                algorithms.cancelAll();
                 if (spaceGraph.packagesVisible()) {
                     spaceGraph.setTransport(false);
                 }
-                spaceGraph.loadGraph(file);
-                panelUpdate();
+                showLoadingProgress(spaceGraph.loadGraphAsync(file, this::panelUpdate));
             } else {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setTitle("Error");
                 alert.setHeaderText("File loading error");
-                alert.setContentText("You tried to load incorrect *.txt file.");
+                alert.setContentText("You tried to load incorrect *.txt or *.sg3d file.");
                 alert.showAndWait();
             }
         }
     }
 
+    private void showLoadingProgress(GraphLoader loader) {
+        progressBar.progressProperty().bind(loader.progressProperty());
+        progressBar.visibleProperty().bind(loader.runningProperty());
+        Buttons.CANCEL.visibleProperty().bind(loader.runningProperty());
+        Buttons.CANCEL.managedProperty().bind(loader.runningProperty());
+        Buttons.CANCEL.setOnAction(event -> loader.cancel());
+        // pocas nacitavania sa nedaju spustat akcie nad grafom, ktory este nie je cely v scene
+        for (Button button: Arrays.asList(Buttons.TRANSPORT, Buttons.PATHFINDER, Buttons.COMPONENTFINDER,
+                Buttons.ALLCOMPONENTS, Buttons.RELOAD)) {
+            button.disableProperty().bind(loader.runningProperty());
+        }
+    }
+
+    private void showAlgorithmError(Throwable error) {
+        Utils.showError("Computation failed", error);
+    }
+
+    private void actionTextureQualityButton() {
+        TextureCache.setBetterQuality(!TextureCache.isBetterQuality());
+        spaceGraph.getGraphView().refreshTextures();
+        if (TextureCache.isBetterQuality()) {
+            Buttons.TEXTURES.setText("Turn HD Textures OFF");
+        } else {
+            Buttons.TEXTURES.setText("Turn HD Textures ON");
+        }
+    }
+
     private void actionReloadButton() {
+        algorithms.cancelAll();
         makeDefaultState();
     }
 
     private void actionAllComponentsButton() {
-        makeDefaultState();
-        for (List<Planet> component: Algorithms.allComponents(spaceGraph.getGraph())) {
-            Color color = Utils.getRandomColor();
-            for (Node n: spaceGraph.getPlanetGroup().getChildren()) {
-                if (n instanceof Sphere) {
-                    Planet planet = (Planet) n.getUserData();
-                    if (component.contains(planet)) {
-                        ((Sphere) n).materialProperty().setValue(new PhongMaterial(color));
-                    }
-                } else if (n instanceof Cylinder) {
-                    Pair info = (Pair) n.getUserData();
-                    Planet planet1 = (Planet) info.getKey();
-                    Planet planet2 = (Planet) info.getValue();
-                    if (component.contains(planet1) && component.contains(planet2)) {
-                        ((Cylinder) n).materialProperty().setValue(new PhongMaterial(color));
-                        ((Cylinder) n).radiusProperty().setValue(3);
-                    }
-                }
-            }
+        Graph graph = spaceGraph.getGraph();
+        algorithms.submit("highlight", task -> Algorithms.componentLabels(graph, task), this::showComponents);
+    }
+
+    private void showComponents(int[] labels) {
+        stopTransport();
+        Color[] colors = new Color[Algorithms.numberOfComponents(spaceGraph.getGraph())];
+        for (int label = 0; label < colors.length; label++) {
+            colors[label] = Utils.getRandomColor();
         }
+        spaceGraph.getGraphView().getHighlight().showComponents(labels, colors);
+        spaceGraph.requestViewUpdate();
     }
 
     private void setButtonActions() {
@@ -163,6 +203,7 @@ public class MenuPanel extends VBox {
         Buttons.COMPONENTFINDER.setOnAction(event -> showComponentFinderDialog());
         Buttons.ALLCOMPONENTS.setOnAction(event -> actionAllComponentsButton());
         Buttons.RELOAD.setOnAction(event -> actionReloadButton());
+        Buttons.TEXTURES.setOnAction(event -> actionTextureQualityButton());
         Buttons.LEGEND.setOnAction(event -> showLegendDialog());
     }
 
@@ -175,10 +216,6 @@ public class MenuPanel extends VBox {
         String graphNodesInfo = "Nodes: " + spaceGraph.getGraph().getPlanets().size();
         String graphEdgesInfo = "Edges: " + spaceGraph.getGraph().getLinks().size();
         String graphProductsInfo = "Products: " + spaceGraph.getGraph().getProductsMap().size();
-        String connected = "Connected: False" + " (" + Algorithms.numberOfComponents(spaceGraph.getGraph()) + ")";
-        if (Algorithms.isConnected(spaceGraph.getGraph())) {
-            connected = "Connected: True" + " (" + Algorithms.numberOfComponents(spaceGraph.getGraph()) + ")";
-        }
         Text t1 = new Text(graphNameInfo);
         t1.setFill(Color.WHITE);
         Text t2 = new Text(graphNodesInfo);
@@ -187,14 +224,25 @@ public class MenuPanel extends VBox {
         t3.setFill(Color.WHITE);
         Text t4 = new Text(graphProductsInfo);
         t4.setFill(Color.WHITE);
-        Text t5 = new Text(connected);
+        Text t5 = new Text(getConnectedInfo(spaceGraph.getGraph()));
         t5.setFill(Color.WHITE);
+        Text t6 = new Text();
+        t6.setFill(Color.WHITE);
+        t6.textProperty().bind(Bindings.createStringBinding(() -> {
+            CullStats stats = spaceGraph.cullStatsProperty().get();
+            return String.format("Drawn/culled planets: %d/%d%nplanet meshes: %d/%d, link meshes: %d/%d, product meshes: %d/%d",
+                    stats.getDrawnPlanets(), stats.getCulledPlanets(),
+                    stats.getDrawnPlanetChunks(), stats.getCulledPlanetChunks(),
+                    stats.getDrawnLinkChunks(), stats.getCulledLinkChunks(),
+                    stats.getDrawnProductChunks(), stats.getCulledProductChunks());
+        }, spaceGraph.cullStatsProperty()));
         pane.setVgap(10);
         pane.add(t1, 0, 0);
         pane.add(t2, 0, 1);
         pane.add(t3, 0, 2);
         pane.add(t4, 0, 3);
         pane.add(t5, 0, 4);
+        pane.add(t6, 0, 5);
         return pane;
     }
 
@@ -217,8 +265,7 @@ public class MenuPanel extends VBox {
             Text t = new Text(productNames.get(i));
             t.setFill(Color.WHITE);
             Sphere sphere = new Sphere(5);
-            PhongMaterial mat = new PhongMaterial(products.get(productNames.get(i)));
-            sphere.setMaterial(mat);
+            sphere.setMaterial(MaterialRegistry.get(products.get(productNames.get(i))));
             pane.add(sphere, 0, i);
             pane.add(t, 1, i);
         }
@@ -253,25 +300,34 @@ public class MenuPanel extends VBox {
 
         grid.add(new Label("Result:"), 0, 3);
 
+        ToggleGroup modeGroup = new ToggleGroup();
+        RadioButton hopsMode = new RadioButton("Hops");
+        hopsMode.setToggleGroup(modeGroup);
+        hopsMode.setSelected(true);
+        RadioButton distanceMode = new RadioButton("Distance");
+        distanceMode.setToggleGroup(modeGroup);
+
+        Graph graph = spaceGraph.getGraph();
         Text resultText = new Text("Not enough information");
         grid.add(resultText, 1, 3, 2, 1);
-        planetChoiceA.setOnAction(event -> {
-            grid.getChildren().remove(resultText);
-            resultText.setText(getBFSInfo(planetChoiceA.getValue(), planetChoiceB.getValue()));
-            grid.add(resultText, 1, 3, 2, 1);
-        });
-
-        planetChoiceB.setOnAction(event -> {
-            grid.getChildren().remove(resultText);
-            resultText.setText(getBFSInfo(planetChoiceA.getValue(), planetChoiceB.getValue()));
-            grid.add(resultText, 1, 3, 2, 1);
-        });
-
-        Label placeHolder1 = new Label("");
-        Label placeHolder2 = new Label("");
-
-        grid.add(placeHolder1, 0, 2);
-        grid.add(placeHolder2, 1, 2);
+        Runnable updateResult = () -> {
+            String choice1 = planetChoiceA.getValue();
+            String choice2 = planetChoiceB.getValue();
+            boolean byDistance = distanceMode.isSelected();
+            resultText.setText("Searching...");
+            algorithms.<String>submit("pathInfo", task -> getBFSInfo(graph, choice1, choice2, byDistance, task), info -> {
+                grid.getChildren().remove(resultText);
+                resultText.setText(info);
+                grid.add(resultText, 1, 3, 2, 1);
+            });
+        };
+        planetChoiceA.setOnAction(event -> updateResult.run());
+        planetChoiceB.setOnAction(event -> updateResult.run());
+        modeGroup.selectedToggleProperty().addListener((observable, oldMode, newMode) -> updateResult.run());
+
+        grid.add(new Label("Cost:"), 0, 2);
+        grid.add(hopsMode, 1, 2);
+        grid.add(distanceMode, 2, 2);
 
         grid.add(new Label("Start Node:"), 0, 0);
         grid.add(planetChoiceA, 1, 0);
@@ -288,65 +344,59 @@ public class MenuPanel extends VBox {
         });
 
         Optional<Pair<String, String>> result = dialog.showAndWait();
+        algorithms.cancel("pathInfo");
 
-        result.ifPresent(pair -> {
-            makeDefaultState();
-            runShortestPathModule(pair.getKey(), pair.getValue());
-        });
+        boolean byDistance = distanceMode.isSelected();
+        result.ifPresent(pair -> algorithms.submit("highlight",
+                task -> findPath(graph, pair.getKey(), pair.getValue(), byDistance, task),
+                this::showHighlightedPlanets));
     }
 
-    private String getBFSInfo(String choice1, String choice2) {
-        List<Planet> result = Algorithms.shortestPath(spaceGraph.getGraph(), choice1, choice2);
+    private String getBFSInfo(Graph graph, String choice1, String choice2, boolean byDistance, ProgressMonitor monitor) {
+        if (!Algorithms.sameComponent(graph, choice1, choice2)) {
+            return "No path found!";
+        }
+        List<Planet> result = findPath(graph, choice1, choice2, byDistance, monitor);
         if (result.isEmpty()) {
             return "No path found!";
         }
+        if (byDistance) {
+            return String.format("Path of distance %.1f (%d nodes) was found.", Algorithms.pathLength(result), result.size());
+        }
         return "Path of length " + result.size() + " was found.";
     }
 
-    private String getDFSInfo(String choice) {
-        List<Planet> result = Algorithms.findComponent(spaceGraph.getGraph(), choice);
-        if (result.size() == 1) {
-            return result.size() + " (alone)";
-        } else {
-            return "" + result.size();
+    private List<Planet> findPath(Graph graph, String choice1, String choice2, boolean byDistance, ProgressMonitor monitor) {
+        if (byDistance) {
+            return queries.shortestRoute(graph, choice1, choice2, monitor);
         }
+        return queries.shortestPath(graph, choice1, choice2, monitor);
     }
 
-    private void runShortestPathModule(String choice1, String choice2) {
-        List<Planet> result = Algorithms.shortestPath(spaceGraph.getGraph(), choice1, choice2);
-        if (!result.isEmpty()) {
-            recolorGraph(result, Color.ORANGERED);
-        }
+    private String getConnectedInfo(Graph graph) {
+        // pocet komponentov udrziava struktura komponentov grafu, netreba ho pocitat na pozadi
+        int components = Algorithms.numberOfComponents(graph);
+        return "Connected: " + (Algorithms.isConnected(graph) ? "True" : "False") + " (" + components + ")";
     }
 
-    private void runComponentModule(String choice) {
-        List<Planet> result = Algorithms.findComponent(spaceGraph.getGraph(), choice);
-        if (!result.isEmpty()) {
-            recolorGraph(result, Color.ORANGERED);
+    private String getDFSInfo(Graph graph, String choice) {
+        int size = Algorithms.componentSize(graph, choice);
+        if (size == 1) {
+            return size + " (alone)";
+        } else {
+            return "" + size;
         }
     }
 
-    private void recolorGraph(List<Planet> except, Color color) {
-
-        for (Node n: spaceGraph.getPlanetGroup().getChildren()) {
-            if (n instanceof Sphere) {
-                Planet planet = (Planet) n.getUserData();
-                if (except.contains(planet)) {
-                    ((Sphere) n).materialProperty().setValue(new PhongMaterial(color));
-                } else {
-                    ((Sphere) n).materialProperty().setValue(new PhongMaterial(Color.rgb(35, 35, 35, 0.2)));
-
-                }
-            } else if (n instanceof Cylinder) {
-                Pair info = (Pair) n.getUserData();
-                Planet planet1 = (Planet) info.getKey();
-                Planet planet2 = (Planet) info.getValue();
-                if (except.contains(planet1) && except.contains(planet2)) {
-                    ((Cylinder) n).materialProperty().setValue(new PhongMaterial(color));
-                    ((Cylinder) n).radiusProperty().setValue(3);
-                }
-            }
+    private void showHighlightedPlanets(List<Planet> result) {
+        stopTransport();
+        HighlightState highlight = spaceGraph.getGraphView().getHighlight();
+        if (result.isEmpty()) {
+            highlight.clear();
+        } else {
+            highlight.highlight(result, Color.ORANGERED, DIMMED);
         }
+        spaceGraph.requestViewUpdate();
     }
 
     private void showComponentFinderDialog() {
@@ -377,11 +427,12 @@ public class MenuPanel extends VBox {
 
         grid.add(new Label("Component size:"), 0, 2);
 
+        Graph graph = spaceGraph.getGraph();
         Text resultText = new Text("Not enough information");
         grid.add(resultText, 1, 2, 2, 1);
         planetChoice.setOnAction(event -> {
             grid.getChildren().remove(resultText);
-            resultText.setText(getDFSInfo(planetChoice.getValue()));
+            resultText.setText(getDFSInfo(graph, planetChoice.getValue())); // velkost komponentu je hned znama
             grid.add(resultText, 1, 2, 2, 1);
         });
 
@@ -402,10 +453,9 @@ public class MenuPanel extends VBox {
 
         Optional<String> result = dialog.showAndWait();
 
-        result.ifPresent(res -> {
-            makeDefaultState();
-            runComponentModule(res);
-        });
+        result.ifPresent(res -> algorithms.submit("highlight",
+                task -> queries.findComponent(graph, res, task),
+                this::showHighlightedPlanets));
     }
 
     private void showLegendDialog() {
@@ -433,8 +483,7 @@ public class MenuPanel extends VBox {
                 Text t = new Text(productNames.get(idx));
                 t.setFill(Color.WHITE);
                 Sphere sphere = new Sphere(5);
-                PhongMaterial mat = new PhongMaterial(products.get(productNames.get(idx)));
-                sphere.setMaterial(mat);
+                sphere.setMaterial(MaterialRegistry.get(products.get(productNames.get(idx))));
                 field = new GridPane();
                 field.setHgap(10);
                 field.add(sphere, 0, 0);
@@ -451,8 +500,7 @@ public class MenuPanel extends VBox {
                 Text t = new Text(productNames.get(idx));
                 t.setFill(Color.WHITE);
                 Sphere sphere = new Sphere(5);
-                PhongMaterial mat = new PhongMaterial(products.get(productNames.get(idx)));
-                sphere.setMaterial(mat);
+                sphere.setMaterial(MaterialRegistry.get(products.get(productNames.get(idx))));
                 field = new GridPane();
                 field.setHgap(10);
                 field.add(sphere, 0, 0);
@@ -511,6 +559,8 @@ class Buttons {
     static Button ALLCOMPONENTS = getAllComponentsButton();
     static Button RELOAD = getReloadButton();
     static Button LEGEND = getShowLegendButton();
+    static Button CANCEL = getCancelLoadingButton();
+    static Button TEXTURES = getTextureQualityButton();
 
     private static final String style = "-fx-background-color: transparent; -fx-text-fill: white; -fx-border-color: white; -fx-font-size: 12";
 
@@ -564,6 +614,22 @@ class Buttons {
         return reloadButton;
     }
 
+    private static Button getTextureQualityButton() {
+        Button textureQualityButton = new Button("Turn HD Textures ON");
+        textureQualityButton.setPrefWidth(160);
+        textureQualityButton.setStyle(style);
+        return textureQualityButton;
+    }
+
+    private static Button getCancelLoadingButton() {
+        Button cancelButton = new Button("Cancel Loading");
+        cancelButton.setPrefWidth(160);
+        cancelButton.setStyle(style);
+        cancelButton.setVisible(false);
+        cancelButton.setManaged(false);
+        return cancelButton;
+    }
+
     private static Button getShowLegendButton() {
         Button buttonLegend = new Button("Show All");
         buttonLegend.setPrefWidth(160);
@@ -0,0 +1,92 @@
+import javafx.scene.shape.TriangleMesh;
+
+/**
+ * Urovne podrobnosti (level of detail) gul planet. Pre kazdu uroven je jedna spolocna siet jednotkovej gule,
+ * objekty planet ju zdielaju a zvacsuju na svoj polomer. Uroven sa vybera podla velkosti planety
+ * na obrazovke, s hysterezou, aby planeta na hranici neprepinala uroven pri kazdom malom pohybe.
+ */
+public class PlanetLod {
+
+    public static final int LOW = 0;
+    public static final int MEDIUM = 1;
+    public static final int HIGH = 2;
+
+    private static final int[] SEGMENTS = {8, 24, 64}; // HIGH zodpoveda predvolenemu deleniu objektu Sphere
+    private static final double[] THRESHOLDS = {6, 24}; // polomer v pixeloch medzi LOW a MEDIUM, MEDIUM a HIGH
+    private static final double HYSTERESIS = 0.2;
+    private static final TriangleMesh[] MESHES = new TriangleMesh[SEGMENTS.length];
+
+    /**
+     * Vrati spolocnu siet jednotkovej gule, pri prvom volani ju vytvori
+     * @param level uroven podrobnosti (LOW, MEDIUM, HIGH)
+     * @return siet gule s polomerom 1
+     */
+    public static TriangleMesh getMesh(int level) {
+        if (MESHES[level] == null) {
+            MESHES[level] = createSphereMesh(SEGMENTS[level], SEGMENTS[level] / 2);
+        }
+        return MESHES[level];
+    }
+
+    /**
+     * Vyberie uroven podrobnosti podla velkosti planety na obrazovke. Vyssiu uroven vyberie az ked polomer
+     * prekroci hranicu o HYSTERESIS, nizsiu az ked klesne o HYSTERESIS pod hranicu
+     * @param radius polomer planety na obrazovke v pixeloch (ViewProjector.projectedRadius)
+     * @param current aktualna uroven planety
+     * @return nova uroven
+     */
+    public static int chooseLevel(double radius, int current) {
+        int level = current;
+        while (level < HIGH && radius > THRESHOLDS[level] * (1 + HYSTERESIS)) {
+            level++;
+        }
+        while (level > LOW && radius < THRESHOLDS[level - 1] * (1 - HYSTERESIS)) {
+            level--;
+        }
+        return level;
+    }
+
+    /**
+     * Vytvori siet jednotkovej gule, texturove suradnice su rovnake ako pri objekte Sphere
+     * (u okolo rovnika, v od severneho po juzny pol)
+     * @param segments pocet deleni okolo rovnika
+     * @param rings pocet deleni od pola k polu
+     * @return siet gule
+     */
+    static TriangleMesh createSphereMesh(int segments, int rings) {
+        TriangleMesh mesh = new TriangleMesh();
+        float[] points = new float[(segments + 1) * (rings + 1) * 3];
+        float[] texCoords = new float[(segments + 1) * (rings + 1) * 2];
+        for (int ring = 0; ring <= rings; ring++) {
+            double theta = Math.PI * ring / rings;
+            for (int segment = 0; segment <= segments; segment++) {
+                double phi = 2 * Math.PI * segment / segments;
+                int i = ring * (segments + 1) + segment;
+                points[i * 3] = (float) (Math.sin(theta) * Math.cos(phi));
+                points[i * 3 + 1] = (float) -Math.cos(theta); // os y v JavaFX smeruje dole
+                points[i * 3 + 2] = (float) (Math.sin(theta) * Math.sin(phi));
+                texCoords[i * 2] = (float) segment / segments;
+                texCoords[i * 2 + 1] = (float) ring / rings;
+            }
+        }
+        int[] faces = new int[segments * rings * 12];
+        int f = 0;
+        for (int ring = 0; ring < rings; ring++) {
+            for (int segment = 0; segment < segments; segment++) {
+                int p00 = ring * (segments + 1) + segment;
+                int p01 = p00 + 1;
+                int p10 = p00 + segments + 1;
+                int p11 = p10 + 1;
+                int[] quad = {p00, p10, p01, p01, p10, p11}; // proti smeru hodinovych ruciciek zvonka
+                for (int p: quad) {
+                    faces[f++] = p;
+                    faces[f++] = p;
+                }
+            }
+        }
+        mesh.getPoints().setAll(points);
+        mesh.getTexCoords().setAll(texCoords);
+        mesh.getFaces().setAll(faces);
+        return mesh;
+    }
+}
@@ -0,0 +1,323 @@
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.PickResult;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Vsetky planety s tou istou texturou vykreslene ako niekolko velkych sieti trojuholnikov namiesto
+ * jedneho objektu Sphere s vlastnym materialom pre kazdu planetu. Vrcholy gul su uz posunute na poziciu planet,
+ * v jednej sieti (MeshView) je najviac PLANETS_PER_CHUNK planet.
+ * Material siete ma spolocnu texturu (atlas): hore textura planet, pod nou pas s paletou 4096 farieb.
+ * Zafarbena planeta ma vsetky trojuholniky s texturovou suradnicou farby z palety, ostatne maju suradnice textury.
+ * Farebny odtien jednotlivych planet (Planet.getColor()) sa v spolocnom materiali nezobrazuje.
+ * Pouziva sa v JavaFX vlakne, zmeny farieb sa prejavia az po zavolani apply().
+ */
+public class PlanetMesh {
+
+    private static final int PLANETS_PER_CHUNK = 2_000;
+    private static final int SEGMENTS = 20;
+    private static final int RINGS = 10;
+    private static final int POINTS_PER_PLANET = (SEGMENTS + 1) * (RINGS + 1);
+    private static final int FACES_PER_PLANET = SEGMENTS * RINGS * 2;
+    private static final int PALETTE_SIZE = 4096;
+    private static final float[] UNIT_SPHERE = new float[POINTS_PER_PLANET * 3];
+
+    static {
+        for (int ring = 0; ring <= RINGS; ring++) {
+            double theta = Math.PI * ring / RINGS;
+            for (int segment = 0; segment <= SEGMENTS; segment++) {
+                double phi = 2 * Math.PI * segment / SEGMENTS;
+                int i = (ring * (SEGMENTS + 1) + segment) * 3;
+                UNIT_SPHERE[i] = (float) (Math.sin(theta) * Math.cos(phi));
+                UNIT_SPHERE[i + 1] = (float) -Math.cos(theta); // os y v JavaFX smeruje dole, sever textury je hore
+                UNIT_SPHERE[i + 2] = (float) (Math.sin(theta) * Math.sin(phi));
+            }
+        }
+    }
+
+    private final int textureIndex;
+    private final Group parent;
+    private final PhongMaterial material = new PhongMaterial(Color.WHITE);
+    private final List<Chunk> chunks = new ArrayList<>();
+    private float[] texCoords = layoutTexCoords(512, 256); // kym nie je textura dekodovana
+    private int size;
+    private int textureRequest;
+
+    /**
+     * @param textureIndex index textury planet v tejto sieti
+     * @param parent skupina objektov, do ktorej sa pridavaju nove siete
+     */
+    public PlanetMesh(int textureIndex, Group parent) {
+        this.textureIndex = textureIndex;
+        this.parent = parent;
+        loadTexture();
+    }
+
+    /**
+     * Prida planetu na koniec, v pripade potreby vytvori novu siet a prida ju do skupiny
+     * @param planet instancia vrcholu s texturou tejto siete
+     * @return poradove cislo planety v tejto sieti
+     */
+    public int add(Planet planet) {
+        if (size / PLANETS_PER_CHUNK == chunks.size()) {
+            Chunk chunk = new Chunk();
+            chunks.add(chunk);
+            parent.getChildren().add(chunk.view);
+        }
+        chunks.get(size / PLANETS_PER_CHUNK).grow(planet);
+        writePoints(size, planet);
+        writeFaces(size, -1);
+        return size++;
+    }
+
+    /**
+     * Odoberie vsetky planety, siete ostanu v skupine a pouziju sa pre nasledne pridane planety
+     * (GraphView.arrangeChunks ich tak rozdeli do sieti nanovo)
+     */
+    public void clear() {
+        for (Chunk chunk: chunks) {
+            chunk.count = 0;
+            chunk.bounds.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     *
+     * @return pocet planet
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Zafarbi planetu jednou farbou (zaokruhlenou na farbu z palety) namiesto textury
+     * @param index poradove cislo planety v tejto sieti
+     * @param color farba
+     */
+    public void setColor(int index, Color color) {
+        writeFaces(index, paletteSlot(color));
+    }
+
+    /**
+     * Vrati planete jej texturu
+     * @param index poradove cislo planety v tejto sieti
+     */
+    public void resetColor(int index) {
+        writeFaces(index, -1);
+    }
+
+    /**
+     * Skryje siete, ktore su cele mimo zorneho pola kamery
+     * @param projector premietanie z aktualneho pohladu kamery
+     * @return pocet zobrazenych sieti
+     */
+    public int cull(ViewProjector projector) {
+        int drawn = 0;
+        for (Chunk chunk: chunks) {
+            boolean visible = chunk.bounds.isVisible(projector);
+            chunk.view.setVisible(visible);
+            if (visible) {
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     *
+     * @return pocet sieti
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Prenesie zmenene farby do sieti, ktore vykresluje JavaFX
+     */
+    public void apply() {
+        for (Chunk chunk: chunks) {
+            chunk.apply();
+        }
+    }
+
+    /**
+     * Nacita texturu v aktualne nastavenej kvalite (TextureCache) a po jej dekodovani vytvori novy atlas
+     */
+    public void loadTexture() {
+        int request = ++textureRequest;
+        TextureCache.request(textureIndex).thenAccept(image -> Platform.runLater(() -> {
+            if (request == textureRequest) { // medzitym mohla byt poziadavka na inu kvalitu
+                setAtlas(image);
+            }
+        }));
+    }
+
+    /**
+     * Najde planetu, na ktoru ukazuje vysledok vyberu mysou
+     * @param result vysledok vyberu (napr. MouseEvent.getPickResult())
+     * @return zasiahnuta planeta alebo null, ak vyber nezasiahol siet planet
+     */
+    public static Planet getPlanet(PickResult result) {
+        Node node = result.getIntersectedNode();
+        int face = result.getIntersectedFace();
+        if (node == null || !(node.getUserData() instanceof Chunk) || face == PickResult.FACE_UNDEFINED) {
+            return null;
+        }
+        return ((Chunk) node.getUserData()).planets[face / FACES_PER_PLANET];
+    }
+
+    private void setAtlas(Image texture) {
+        int width = (int) texture.getWidth();
+        int height = (int) texture.getHeight();
+        int paletteRows = (PALETTE_SIZE + width - 1) / width;
+        WritableImage atlas = new WritableImage(width, height + paletteRows);
+        int[] pixels = new int[width * height];
+        texture.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        atlas.getPixelWriter().setPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+        int[] palette = new int[width * paletteRows];
+        for (int slot = 0; slot < PALETTE_SIZE; slot++) {
+            palette[slot] = 0xFF000000 | (slot >> 8) * 17 << 16 | (slot >> 4 & 0xF) * 17 << 8 | (slot & 0xF) * 17;
+        }
+        atlas.getPixelWriter().setPixels(0, height, width, paletteRows, PixelFormat.getIntArgbInstance(), palette, 0, width);
+        texCoords = layoutTexCoords(width, height);
+        for (Chunk chunk: chunks) {
+            chunk.mesh.getTexCoords().setAll(texCoords);
+        }
+        material.setDiffuseMap(atlas);
+    }
+
+    /**
+     * Texturove suradnice atlasu: najprv mriezka gule v oblasti textury, potom stredy pixelov palety
+     */
+    private static float[] layoutTexCoords(int width, int height) {
+        int paletteRows = (PALETTE_SIZE + width - 1) / width;
+        float atlasHeight = height + paletteRows;
+        float[] coords = new float[(POINTS_PER_PLANET + PALETTE_SIZE) * 2];
+        for (int ring = 0; ring <= RINGS; ring++) {
+            for (int segment = 0; segment <= SEGMENTS; segment++) {
+                int i = (ring * (SEGMENTS + 1) + segment) * 2;
+                coords[i] = (float) segment / SEGMENTS;
+                coords[i + 1] = (height - 0.5f) * ring / RINGS / atlasHeight; // bez presahu do palety
+            }
+        }
+        for (int slot = 0; slot < PALETTE_SIZE; slot++) {
+            int i = (POINTS_PER_PLANET + slot) * 2;
+            coords[i] = (slot % width + 0.5f) / width;
+            coords[i + 1] = (height + slot / width + 0.5f) / atlasHeight;
+        }
+        return coords;
+    }
+
+    private static int paletteSlot(Color color) {
+        int r = (int) Math.round(color.getRed() * 15);
+        int g = (int) Math.round(color.getGreen() * 15);
+        int b = (int) Math.round(color.getBlue() * 15);
+        return r << 8 | g << 4 | b;
+    }
+
+    private void writePoints(int index, Planet planet) {
+        Chunk chunk = chunks.get(index / PLANETS_PER_CHUNK);
+        int offset = (index % PLANETS_PER_CHUNK) * POINTS_PER_PLANET * 3;
+        float radius = (float) planet.getRadius();
+        float x = (float) planet.getX();
+        float y = (float) planet.getY();
+        float z = (float) planet.getZ();
+        for (int i = 0; i < POINTS_PER_PLANET * 3; i += 3) {
+            chunk.points[offset + i] = x + radius * UNIT_SPHERE[i];
+            chunk.points[offset + i + 1] = y + radius * UNIT_SPHERE[i + 1];
+            chunk.points[offset + i + 2] = z + radius * UNIT_SPHERE[i + 2];
+        }
+        chunk.pointsDirty = true;
+    }
+
+    /**
+     * Zapise trojuholniky gule: kazde policko mriezky su dva trojuholniky
+     * @param slot farba z palety alebo -1 pre texturu
+     */
+    private void writeFaces(int index, int slot) {
+        Chunk chunk = chunks.get(index / PLANETS_PER_CHUNK);
+        int first = (index % PLANETS_PER_CHUNK) * POINTS_PER_PLANET;
+        int i = (index % PLANETS_PER_CHUNK) * FACES_PER_PLANET * 6;
+        int[] faces = chunk.faces;
+        for (int ring = 0; ring < RINGS; ring++) {
+            for (int segment = 0; segment < SEGMENTS; segment++) {
+                int p00 = ring * (SEGMENTS + 1) + segment;
+                int p01 = p00 + 1;
+                int p10 = p00 + SEGMENTS + 1;
+                int p11 = p10 + 1;
+                i = writeTriangle(faces, i, first, slot, p00, p10, p01); // proti smeru hodinovych ruciciek zvonka
+                i = writeTriangle(faces, i, first, slot, p01, p10, p11);
+            }
+        }
+        chunk.facesDirty = true;
+    }
+
+    private static int writeTriangle(int[] faces, int i, int first, int slot, int a, int b, int c) {
+        faces[i] = first + a;
+        faces[i + 1] = slot < 0 ? a : POINTS_PER_PLANET + slot;
+        faces[i + 2] = first + b;
+        faces[i + 3] = slot < 0 ? b : POINTS_PER_PLANET + slot;
+        faces[i + 4] = first + c;
+        faces[i + 5] = slot < 0 ? c : POINTS_PER_PLANET + slot;
+        return i + 6;
+    }
+
+    /**
+     * Jedna siet s najviac PLANETS_PER_CHUNK planetami, jej pracovne polia a planety v poradi ich trojuholnikov
+     */
+    private class Chunk {
+
+        final TriangleMesh mesh = new TriangleMesh();
+        final MeshView view = new MeshView(mesh);
+        final ChunkBounds bounds = new ChunkBounds();
+        Planet[] planets = new Planet[0];
+        float[] points = new float[0];
+        int[] faces = new int[0];
+        int count;
+        boolean pointsDirty;
+        boolean facesDirty;
+
+        Chunk() {
+            mesh.getTexCoords().setAll(texCoords);
+            view.setMaterial(material);
+            view.setUserData(this);
+        }
+
+        /**
+         * Prida miesto pre dalsiu planetu, polia rastu postupne az po PLANETS_PER_CHUNK planet
+         */
+        void grow(Planet planet) {
+            if (count == planets.length) {
+                int capacity = Math.min(PLANETS_PER_CHUNK, Math.max(16, count * 2));
+                planets = Arrays.copyOf(planets, capacity);
+                points = Arrays.copyOf(points, capacity * POINTS_PER_PLANET * 3);
+                faces = Arrays.copyOf(faces, capacity * FACES_PER_PLANET * 6);
+            }
+            planets[count++] = planet;
+            bounds.add(planet.getX(), planet.getY(), planet.getZ(), planet.getRadius());
+        }
+
+        void apply() {
+            if (pointsDirty) {
+                mesh.getPoints().setAll(points, 0, count * POINTS_PER_PLANET * 3);
+                pointsDirty = false;
+            }
+            if (facesDirty) {
+                mesh.getFaces().setAll(faces, 0, count * FACES_PER_PLANET * 6);
+                facesDirty = false;
+            }
+        }
+    }
+}
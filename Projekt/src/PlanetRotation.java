@@ -0,0 +1,109 @@
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Point3D;
+import javafx.scene.shape.Shape3D;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Rotacia planet riadena jednym AnimationTimer. Os a uhlova rychlost kazdej planety sa vyberu raz
+ * pri prvom otoceni grafu a su ulozene v poliach indexovanych identifikatormi planet. Uhol planety zavisi
+ * od casu, pocas ktoreho rotacia bezi, takze pohyb je plynuly pri akejkolvek frekvencii snimkov.
+ * V kazdom snimku sa otacaju len planety, ktore pri poslednom orezavani ostali v zornom poli (GraphView.getVisiblePlanets);
+ * planety vykreslene spolocne (PlanetMesh) sa neotacaju.
+ */
+public class PlanetRotation {
+
+    private static final double MIN_SPEED = 0.5; // stupne za sekundu
+    private static final double MAX_SPEED = 5;
+
+    private final Supplier<GraphView> view;
+    private final Random random = new Random();
+    private final AnimationTimer timer;
+    private GraphView prepared;
+    private int preparedCount;
+    private float[] axes = new float[0]; // x, y, z pre kazdu planetu
+    private float[] speeds = new float[0];
+    private float[] phases = new float[0];
+    private long elapsed; // cas v nanosekundach, pocas ktoreho rotacia bezala
+    private long last;
+
+    /**
+     * @param view graficke zobrazenie aktualneho grafu
+     */
+    public PlanetRotation(Supplier<GraphView> view) {
+        this.view = view;
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (last >= 0) {
+                    elapsed += now - last;
+                }
+                last = now;
+                rotate();
+            }
+        };
+    }
+
+    /**
+     * Spusti rotaciu, planety pokracuju z uhlov, v ktorych sa zastavili
+     */
+    public void start() {
+        last = -1;
+        timer.start();
+    }
+
+    /**
+     * Zastavi rotaciu
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    private void rotate() {
+        GraphView current = view.get();
+        if (current == null || current.isBatched()) {
+            return;
+        }
+        prepare(current);
+        double seconds = elapsed / 1e9;
+        for (Planet planet: current.getVisiblePlanets()) {
+            int id = planet.getId();
+            current.getPlanetShape(planet).setRotate((phases[id] + speeds[id] * seconds) % 360);
+        }
+    }
+
+    /**
+     * Vyberie os, rychlost a pociatocny uhol planetam, ktore ich este nemaju, a nastavi im os rotacie
+     */
+    private void prepare(GraphView current) {
+        if (current != prepared) {
+            prepared = current;
+            preparedCount = 0;
+        }
+        int count = current.getGraph().getPlanets().size();
+        if (preparedCount == count) {
+            return;
+        }
+        if (speeds.length < count) {
+            axes = Arrays.copyOf(axes, count * 3);
+            speeds = Arrays.copyOf(speeds, count);
+            phases = Arrays.copyOf(phases, count);
+        }
+        for (int id = preparedCount; id < count; id++) {
+            // rovnomerne nahodny smer osi na jednotkovej sfere
+            double z = random.nextDouble() * 2 - 1;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double r = Math.sqrt(1 - z * z);
+            axes[id * 3] = (float) (r * Math.cos(angle));
+            axes[id * 3 + 1] = (float) (r * Math.sin(angle));
+            axes[id * 3 + 2] = (float) z;
+            speeds[id] = (float) (MIN_SPEED + random.nextDouble() * (MAX_SPEED - MIN_SPEED));
+            phases[id] = (float) (random.nextDouble() * 360);
+            Shape3D shape = current.getPlanetShape(current.getGraph().getPlanet(id));
+            shape.setRotationAxis(new Point3D(axes[id * 3], axes[id * 3 + 1], axes[id * 3 + 2]));
+        }
+        preparedCount = count;
+    }
+}
@@ -1,26 +1,21 @@
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Point3D;
 import javafx.scene.Camera;
-import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.PerspectiveCamera;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
-import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.Cylinder;
+import javafx.scene.shape.MeshView;
 import javafx.scene.shape.Sphere;
-import javafx.scene.text.Text;
 import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Translate;
-import javafx.util.Duration;
 import javafx.util.Pair;
 
 import java.io.File;
+import java.io.IOException;
 
 public class Preparer {
 
@@ -40,8 +35,9 @@ public class Preparer {
      * Nastavi datovu strukturu graf podla prislusneho vstupneho suboru
      * @param file vstupny textovy subor
      * @return instancia grafu
+     * @throws IOException ak sa subor neda precitat alebo nema spravny format
      */
-    public static Graph prepareGraph(File file) {
+    public static Graph prepareGraph(File file) throws IOException {
         if (file == null) {
             file = new File("src/sources/graphs/file25Hustejsi.txt"); // default
         }
@@ -52,30 +48,49 @@ public class Preparer {
 
     /**
      * Pripravi zoznam objektov, ktorych vykreslenim sa vytvori trojrozmerny graf
-     * @param graph instancia grafu
+     * @param view graficke zobrazenie grafu
      * @return zoznam objektov na nacitanie do sceny
      */
-    public static ObservableList<Node> prepareChildren(Graph graph) {
+    public static ObservableList<Node> prepareChildren(GraphView view) {
         ObservableList<Node> children = FXCollections.observableArrayList();
-        for (Planet planet: graph.getPlanets()) {
-            children.addAll(planet.getShape(), Preparer.preparePlanetText(planet));
-
-        }
-        for (Link link: graph.getLinks()) {
-            children.addAll(
-                    Preparer.prepareLinkLine(link.getFrom(), link.getTo()));
-        }
+        Graph graph = view.getGraph();
+        view.addPlanets(graph.getPlanets());
+        children.add(view.getPlanetNodes());
+        children.addAll(view.getLinkMesh().addLinks(graph.getLinks()));
+        view.arrangeChunks();
         return children;
     }
 
     /**
-     * Pripravi a nastavi 3D objekt sfery, reprezentujuci planetu (vrchol grafu)
+     * Pripravi a nastavi 3D objekt planety (vrcholu grafu) so spolocnou sietou gule zvolenej podrobnosti
+     * a spolocnym materialom (MaterialRegistry) podla textury a farby planety
      * @param node instancia vrcholu
+     * @param level uroven podrobnosti (PlanetLod)
+     * @return instancia 3D objektu planety
+     */
+    public static MeshView preparePlanetShape(Planet node, int level) {
+        MeshView shape = new MeshView(PlanetLod.getMesh(level));
+        shape.setMaterial(MaterialRegistry.get(node.getColor(), node.getTextureIndex()));
+        shape.setScaleX(node.getRadius());
+        shape.setScaleY(node.getRadius());
+        shape.setScaleZ(node.getRadius());
+        shape.setTranslateX(node.getX());
+        shape.setTranslateY(node.getY());
+        shape.setTranslateZ(node.getZ());
+        shape.setUserData(node);
+        return shape;
+    }
+
+    /**
+     * Pripravi a nastavi 3D objekt sfery, reprezentujuci planetu (vrchol grafu).
+     * Graf vykresluje planety cez preparePlanetShape, sfera s predvolenym delenim sa pouziva len na porovnanie (RenderBenchmark)
+     * @param node instancia vrcholu
+     * @param image obrazok textury planety
      * @return instancia 3D objektu sfery
      */
-    public static Sphere preparePlanetSphere(Planet node) {
+    public static Sphere preparePlanetSphere(Planet node, Image image) {
         PhongMaterial texture = new PhongMaterial();
-        texture.setDiffuseMap(node.getTexture());
+        texture.setDiffuseMap(image);
         texture.setDiffuseColor(node.getColor());
         Sphere sphere = new Sphere(node.getRadius());
         sphere.setMaterial(texture);
@@ -87,42 +102,8 @@ public class Preparer {
     }
 
     /**
-     * Pripravi a nastavi text, reprezentujuci nazov planety (vrcholu)
-     * @param node instancia vrcholu
-     * @return instancia textu na vykreslenie do sceny
-     */
-    public static Text preparePlanetText(Planet node) {
-        Text text = new Text(node.getData());
-        text.setTranslateX(node.getX());
-        text.setTranslateY(node.getY() - node.getRadius() - 5);
-        text.setTranslateZ(node.getZ());
-        text.setFill(Color.WHITE);
-        text.setStyle("-fx-font-family: Verdana; -fx-font-size: 10");
-        return text;
-    }
-
-    /**
-     * Pripravi a nastavi animacny objekt, ktory simuluje rotaciu jednotlivych planet (vrcholov)
-     * @param planetGroup instancia skupiny objektov, reprezentujuca 3D objekty vrcholov (planet)
-     * @return instancia animacie
-     */
-    public static Timeline preparePlanetRotationAnimation(Group planetGroup) {
-        Timeline timeline = new Timeline(
-                new KeyFrame(Duration.millis(100),
-                        event -> {
-                    for (Node n: planetGroup.getChildren()) {
-                        if (n instanceof Sphere) {
-                            n.rotateProperty().set(n.getRotate() + Utils.getRandomDouble(0.05, 0.5));
-                        }
-                    }
-                })
-        );
-        timeline.setCycleCount(Animation.INDEFINITE);
-        return timeline;
-    }
-
-    /**
-     * Pripravi a nastavi 3D objekt cylindru, reprezentujuci spojenie medzi dvoma vrcholmi
+     * Pripravi a nastavi 3D objekt cylindru, reprezentujuci spojenie medzi dvoma vrcholmi.
+     * Graf vykresluje spoje spolocne cez LinkMesh, samostatny cylinder sa pouziva len na porovnanie (RenderBenchmark)
      * @param planet1 instancia pociatocnej planety
      * @param planet2 instancia konecnej planety
      * @return instancia 3D objektu cylindru (ciary)
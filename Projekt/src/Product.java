@@ -1,17 +1,12 @@
-import javafx.animation.Animation;
-import javafx.animation.TranslateTransition;
-import javafx.scene.CacheHint;
 import javafx.scene.paint.Color;
-import javafx.scene.paint.PhongMaterial;
-import javafx.scene.shape.Sphere;
-import javafx.util.Duration;
 
+/**
+ * Tovar presuvany po spoji medzi planetami, presun aj vykreslenie zabezpecuje TransportEngine
+ */
 public class Product {
 
     private String name; //
     private Color color;
-    private TranslateTransition animation;
-    private Sphere productShape;
     private Link link;
 
     public Product(String name, Color color, Link link) {
@@ -21,45 +16,26 @@ public class Product {
     }
 
     /**
-     * Pripravi a nastavi 3D objekt sfery, reprezentujuci tovar presuvany medzi planetami (vrcholmi)
-     * a zaroven nastavi jeho animaciu, t.j. posun po spoji medzi planerami (vrcholmi)
-     */
-    public void prepareProductShape() {
-        productShape = new Sphere(5);
-        productShape.setMaterial(new PhongMaterial(color));
-        animation = new TranslateTransition();
-        animation.setFromX(link.getFrom().getX());
-        animation.setFromY(link.getFrom().getY());
-        animation.setFromZ(link.getFrom().getZ());
-        animation.setToX(link.getTo().getX());
-        animation.setToY(link.getTo().getY());
-        animation.setToZ(link.getTo().getZ());
-        animation.setDuration(Duration.seconds(Utils.getRandomDouble(20, 100)));
-        animation.setCycleCount(Animation.INDEFINITE);
-        productShape.setCache(true);
-        productShape.setCacheHint(CacheHint.SPEED);
-        animation.setNode(productShape);
-    }
-
-    /**
-     * Zapne animaciu presunu tovaru medzi planetami
+     *
+     * @return nazov tovaru
      */
-    public void startSending() {
-        animation.play();
+    public String getName() {
+        return name;
     }
 
     /**
-     * Vypne animaciu presunu tovaru medzi planetami
+     *
+     * @return farba tovaru
      */
-    public void stopSending() {
-        animation.stop();
+    public Color getColor() {
+        return color;
     }
 
     /**
      *
-     * @return instancia 3D objektu sfery, reprezentujuca presuvany tovar medzi planetami
+     * @return spoj, po ktorom sa tovar presuva
      */
-    public Sphere getProductShape() {
-        return productShape;
+    public Link getLink() {
+        return link;
     }
 }
\ No newline at end of file
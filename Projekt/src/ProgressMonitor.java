@@ -0,0 +1,45 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Spojenie dlhsieho vypoctu (Algorithms) s tym, kto ho spustil: vypocet cez neho hlasi priebeh
+ * a priebezne zistuje, ci nebol zruseny. V aplikacii ho implementuje AlgorithmService.AlgorithmTask
+ */
+public interface ProgressMonitor {
+
+    /**
+     * Monitor, ktory priebeh ignoruje a vypocet nikdy nezrusi
+     */
+    ProgressMonitor NONE = new ProgressMonitor() {
+        @Override
+        public void progress(double done, double total) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    /**
+     * Nahlasi priebeh vypoctu
+     * @param done pocet hotovych krokov
+     * @param total celkovy pocet krokov
+     */
+    void progress(double done, double total);
+
+    /**
+     *
+     * @return true, ak bol vypocet zruseny a jeho vysledok uz nikoho nezaujima
+     */
+    boolean isCancelled();
+
+    /**
+     * Ukonci vypocet, ak bol zruseny
+     * @throws CancellationException ak bol vypocet zruseny
+     */
+    default void checkCancelled() {
+        if (isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+}
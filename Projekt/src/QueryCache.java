@@ -0,0 +1,176 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Vyrovnavacia pamat vysledkov dotazov na cesty a komponenty grafu s obmedzenou velkostou,
+ * pri zaplneni sa zahodi najdlhsie nepouzity vysledok (LRU).
+ * Pamat drzi vysledky len pre jednu verziu grafu (Graph.getVersion()): prvy dotaz po zmene alebo nacitani grafu
+ * vsetky stare vysledky zahodi, takze nedrzia v pamati predchadzajuci graf.
+ * Komponent sa pamata raz pre kazdy komponent (podla reprezentanta v Connectivity), nie pre kazdy vrchol.
+ * Vratene zoznamy su nemenne a zdielane medzi volajucimi. Trieda je vlaknovo bezpecna.
+ */
+public class QueryCache {
+
+    private final int capacity;
+    private final Map<List<Object>, Object> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private long version = -1; // verzia grafu, ku ktorej patria zapamatane vysledky
+
+    /**
+     * @param capacity najvacsi pocet zapamatanych vysledkov
+     */
+    public QueryCache(int capacity) {
+        this.capacity = capacity;
+        entries = new LinkedHashMap<List<Object>, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                return size() > QueryCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Najkratsia cesta v poctoch krokov (Algorithms.shortestPathBidirectional)
+     * @param g graf
+     * @param from nazov startoveho vrcholu
+     * @param to nazov konecneho vrcholu
+     * @return nemenny zoznam vrcholov cesty, prazdny, ak cesta neexistuje
+     */
+    public List<Planet> shortestPath(Graph g, String from, String to) {
+        return shortestPath(g, from, to, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Najkratsia cesta v poctoch krokov, ak nie je zapamatana, vypocet hlasi priebeh a da sa zrusit
+     * @param g graf
+     * @param from nazov startoveho vrcholu
+     * @param to nazov konecneho vrcholu
+     * @param monitor priebeh a zrusenie vypoctu, zruseny vypocet sa nezapamata
+     * @return nemenny zoznam vrcholov cesty, prazdny, ak cesta neexistuje
+     */
+    public List<Planet> shortestPath(Graph g, String from, String to, ProgressMonitor monitor) {
+        return lookup(g.getVersion(), Arrays.asList("path", from, to),
+                () -> Collections.unmodifiableList(Algorithms.shortestPathBidirectional(g, from, to, monitor)));
+    }
+
+    /**
+     * Najkratsia cesta podla dlzok spojov (Algorithms.shortestRoute)
+     * @param g graf
+     * @param from nazov startoveho vrcholu
+     * @param to nazov konecneho vrcholu
+     * @return nemenny zoznam vrcholov cesty, prazdny, ak cesta neexistuje
+     */
+    public List<Planet> shortestRoute(Graph g, String from, String to) {
+        return shortestRoute(g, from, to, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Najkratsia cesta podla dlzok spojov, ak nie je zapamatana, vypocet hlasi priebeh a da sa zrusit
+     * @param g graf
+     * @param from nazov startoveho vrcholu
+     * @param to nazov konecneho vrcholu
+     * @param monitor priebeh a zrusenie vypoctu, zruseny vypocet sa nezapamata
+     * @return nemenny zoznam vrcholov cesty, prazdny, ak cesta neexistuje
+     */
+    public List<Planet> shortestRoute(Graph g, String from, String to, ProgressMonitor monitor) {
+        return lookup(g.getVersion(), Arrays.asList("route", from, to),
+                () -> Collections.unmodifiableList(Algorithms.shortestRoute(g, from, to, monitor)));
+    }
+
+    /**
+     * Komponent obsahujuci zadany vrchol (Algorithms.findComponent)
+     * @param g graf
+     * @param name nazov vrcholu
+     * @return nemenny zoznam vrcholov komponentu
+     */
+    public List<Planet> findComponent(Graph g, String name) {
+        return findComponent(g, name, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Komponent obsahujuci zadany vrchol, ak nie je zapamatany, vypocet hlasi priebeh a da sa zrusit
+     * @param g graf
+     * @param name nazov vrcholu
+     * @param monitor priebeh a zrusenie vypoctu, zruseny vypocet sa nezapamata
+     * @return nemenny zoznam vrcholov komponentu
+     */
+    public List<Planet> findComponent(Graph g, String name, ProgressMonitor monitor) {
+        long version = g.getVersion();
+        Planet planet = g.getPlanet(name);
+        if (planet == null) {
+            return Collections.emptyList();
+        }
+        int root = g.getConnectivity().componentOf(planet.getId());
+        return lookup(version, Arrays.asList("component", root),
+                () -> Collections.unmodifiableList(Algorithms.findComponent(g, name, monitor)));
+    }
+
+    /**
+     *
+     * @return pocet dotazov zodpovedanych z pamate
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     *
+     * @return pocet dotazov, ktore bolo treba vypocitat
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     *
+     * @return aktualny pocet zapamatanych vysledkov
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     *
+     * @return najvacsi pocet zapamatanych vysledkov
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Zahodi vsetky zapamatane vysledky, pocitadla ponecha
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Vrati zapamatany vysledok, alebo ho vypocita a zapamata. Pri novej verzii grafu najprv zahodi stare vysledky.
+     * Vypocet bezi mimo zamku, aby dlhy dotaz neblokoval ostatne vlakna
+     * @param graphVersion verzia grafu, nad ktorou sa dotaz vykonava
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(long graphVersion, List<Object> key, Supplier<T> query) {
+        synchronized (this) {
+            if (graphVersion != version) {
+                entries.clear();
+                version = graphVersion;
+            }
+            Object cached = entries.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return (T) cached;
+            }
+        }
+        misses.incrementAndGet();
+        T result = query.get();
+        synchronized (this) {
+            if (graphVersion == version) { // medzitym sa mohol zacat pouzivat iny graf
+                entries.put(key, result);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
+import javafx.scene.SceneAntialiasing;
+import javafx.scene.SubScene;
+import javafx.scene.transform.Rotate;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Meranie vykreslovania grafu: samostatne cylindre (Preparer.prepareLinkLine) oproti LinkMesh,
+ * objekty Sphere s predvolenym delenim oproti planetam s urovnami podrobnosti (PlanetLod)
+ * a oproti planetam vykreslenym spolocne po texturach (PlanetMesh).
+ * Spusta sa samostatne (java RenderBenchmark [subor grafu alebo pocet planet] [priemerny stupen]),
+ * napr. src/sources/graphs/file118.txt alebo 10000. Kazdy sposob sa vykresluje niekolko sekund
+ * pri otacani sceny, na standardny vystup sa vypise pocet objektov v scene a priemerny cas snimku.
+ */
+public class RenderBenchmark extends Application {
+
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 5_000_000_000L;
+
+    private Graph graph;
+    private Group group = new Group();
+    private Rotate rotate = new Rotate(0, Rotate.Y_AXIS);
+    private SubScene scene;
+    private Runnable onFrame;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage stage) throws IOException {
+        List<String> args = getParameters().getUnnamed();
+        String source = args.size() > 0 ? args.get(0) : "10000";
+        double degree = args.size() > 1 ? Double.parseDouble(args.get(1)) : 4;
+        if (new File(source).isFile()) {
+            graph = new Graph(new File(source));
+        } else {
+            graph = new GraphGenerator().setSeed(17).setPlanetCount(Integer.parseInt(source))
+                    .setAverageDegree(degree).generate();
+        }
+        System.out.printf("planets %d, links %d%n", graph.getPlanets().size(), graph.getLinks().size());
+
+        group.getTransforms().add(rotate);
+        scene = new SubScene(group, 1200, 800, true, SceneAntialiasing.BALANCED);
+        scene.setCamera(Preparer.prepareCamera());
+        stage.setScene(new Scene(new Group(scene)));
+        stage.show();
+
+        measure("cylinders", this::showCylinders,
+                () -> measure("link mesh", this::showLinkMesh,
+                () -> measure("spheres", this::showSpheres,
+                () -> measure("lod", this::showLevelsOfDetail,
+                () -> measure("planet mesh", () -> showPlanets(0), Platform::exit)))));
+    }
+
+    private void showCylinders() {
+        group.getChildren().clear();
+        for (Link link: graph.getLinks()) {
+            group.getChildren().add(Preparer.prepareLinkLine(link.getFrom(), link.getTo()));
+        }
+    }
+
+    private void showLinkMesh() {
+        group.getChildren().setAll(new LinkMesh().addLinks(graph.getLinks()));
+    }
+
+    private void showSpheres() {
+        group.getChildren().clear();
+        for (Planet planet: graph.getPlanets()) {
+            group.getChildren().add(Preparer.preparePlanetSphere(planet, TextureCache.get(planet.getTextureIndex(), false)));
+        }
+    }
+
+    private void showLevelsOfDetail() {
+        GraphView view = showPlanets(Integer.MAX_VALUE);
+        ViewProjector projector = new ViewProjector(scene, group);
+        onFrame = () -> {
+            projector.update();
+            view.updateLevelOfDetail(projector);
+        };
+    }
+
+    private GraphView showPlanets(int batchThreshold) {
+        GraphView view = new GraphView(graph, batchThreshold);
+        view.addPlanets(graph.getPlanets());
+        group.getChildren().setAll(view.getPlanetNodes());
+        return view;
+    }
+
+    /**
+     * Pripravi scenu a po zahriati meria priemerny cas snimku
+     */
+    private void measure(String name, Runnable prepare, Runnable onDone) {
+        onFrame = () -> { };
+        long prepareStart = System.nanoTime();
+        prepare.run();
+        long prepareNanos = System.nanoTime() - prepareStart;
+        new AnimationTimer() {
+            private long start;
+            private long measureStart;
+            private int frames;
+
+            @Override
+            public void handle(long now) {
+                rotate.setAngle(rotate.getAngle() + 0.5);
+                onFrame.run();
+                if (start == 0) {
+                    start = now;
+                } else if (measureStart == 0 && now - start >= WARMUP_NANOS) {
+                    measureStart = now;
+                } else if (measureStart != 0) {
+                    frames++;
+                    if (now - measureStart >= MEASURE_NANOS) {
+                        stop();
+                        System.out.printf("%-11s nodes %7d, prepare %6d ms, frame %.2f ms%n", name,
+                                countNodes(group), prepareNanos / 1_000_000,
+                                (now - measureStart) / 1e6 / frames);
+                        onDone.run();
+                    }
+                }
+            }
+        }.start();
+    }
+
+    private static int countNodes(Parent parent) {
+        int count = 0;
+        for (Node node: parent.getChildrenUnmodifiable()) {
+            count += node instanceof Parent ? countNodes((Parent) node) : 1;
+        }
+        return count;
+    }
+}
@@ -1,11 +1,17 @@
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.scene.*;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.transform.Rotate;
 import javafx.stage.Stage;
 
 import java.io.File;
+import java.io.IOException;
 
 
 public class SpaceGraph3D extends Application {
@@ -18,14 +24,19 @@ public class SpaceGraph3D extends Application {
     private static final float HEIGHT = 720;
 
     private static Graph graph;
+    private static GraphView graphView;
 
     private Group group = new Group();
     private Group planetGroup = new Group();
     private SubScene scene = new SubScene(group, WIDTH, HEIGHT, true, SceneAntialiasing.BALANCED);
+    private LabelOverlay labels = new LabelOverlay(WIDTH, HEIGHT);
     private BorderPane layout = new BorderPane();
     private Scene root = new Scene(layout);
     private static MenuPanel panel;
-    private File actualGraphFile;
+    private GraphLoader loader;
+    private ViewProjector projector;
+    private boolean viewUpdateScheduled;
+    private ReadOnlyObjectWrapper<CullStats> cullStats = new ReadOnlyObjectWrapper<>(CullStats.EMPTY);
 
     private boolean packagesVisible;
     private boolean planetRotation;
@@ -37,7 +48,7 @@ public class SpaceGraph3D extends Application {
 
         panel = new MenuPanel(this);
         layout.setLeft(panel);
-        layout.setCenter(scene);
+        layout.setCenter(new Pane(scene, labels)); // nazvy planet sa kreslia nad 3D scenu
 
         group.getChildren().add(Preparer.prepareBackground());
         group.getChildren().add(planetGroup);
@@ -48,6 +59,12 @@ public class SpaceGraph3D extends Application {
 
         MouseControl.initMouseControl(planetGroup, root); // otacaj len planety
 
+        projector = new ViewProjector(scene, planetGroup);
+        InvalidationListener viewChanged = observable -> requestViewUpdate();
+        planetGroup.localToSceneTransformProperty().addListener(viewChanged);
+        scene.getCamera().localToSceneTransformProperty().addListener(viewChanged);
+        requestViewUpdate();
+
         primaryStage.setScene(root);
         primaryStage.setResizable(false);
         primaryStage.setTitle("SpaceGraph3D");
@@ -78,6 +95,14 @@ public class SpaceGraph3D extends Application {
         return graph;
     }
 
+    /**
+     *
+     * @return graficke zobrazenie aktualneho grafu
+     */
+    public GraphView getGraphView() {
+        return graphView;
+    }
+
     /**
      *
      * @return informacia, ci prebieha animacia presunu tovarov medzi planetami
@@ -100,46 +125,105 @@ public class SpaceGraph3D extends Application {
      * @param file textovy subor
      */
     public void loadGraph(File file) {
-        graph = Preparer.prepareGraph(file);
-        actualGraphFile = graph.getLoadedFile();
-        planetGroup.getChildren().addAll(Preparer.prepareChildren(graph));
+        Graph loaded;
+        try {
+            loaded = Preparer.prepareGraph(file);
+        } catch (IOException e) {
+            Utils.showError("File loading error", e); // ostane povodny graf
+            return;
+        }
+        if (graph != null) {
+            graph.stopBackgroundTasks();
+        }
+        graph = loaded;
+        graph.startDistanceTable(); // ak je zapnuta, kym nie je hotova, cesty sa hladaju pomocou BFS
+        graphView = new GraphView(graph);
+        planetGroup.getChildren().addAll(Preparer.prepareChildren(graphView));
+        requestViewUpdate();
     }
 
     /**
-     * vymazanie vsetkych objektov grafu zo sceny
+     *
+     * @return pocty zobrazenych a skrytych planet a sieti pri poslednom orezavani
      */
-    public void clearGraph() {
-        planetGroup.getChildren().clear();
+    public ReadOnlyObjectProperty<CullStats> cullStatsProperty() {
+        return cullStats.getReadOnlyProperty();
     }
 
     /**
-     * opatovne nacitanie grafu do sceny
+     * Po zmene pohladu (otocenie, priblizenie), grafu alebo vybranych planet naplanuje orezanie objektov
+     * mimo zorneho pola, vyber urovne podrobnosti planet a prekreslenie nazvov, viac zmien pocas jedneho snimku sa spracuje raz
      */
-    public void reloadGraph() {
-        if (packagesVisible) {
-            setTransport(false);
+    public void requestViewUpdate() {
+        if (viewUpdateScheduled || projector == null) {
+            return;
         }
-        clearGraph();
-        loadGraph(actualGraphFile);
+        viewUpdateScheduled = true;
+        Platform.runLater(() -> {
+            viewUpdateScheduled = false;
+            projector.update(); // znovu aktivuje sledovanie transformacii
+            graphView.cull(projector);
+            graphView.updateLevelOfDetail(projector);
+            if (loader != null && loader.runningProperty().get()) {
+                labels.clear(); // v scene je rozpracovany novy graf, nazvy patria aktualnemu
+            } else {
+                labels.draw(graphView, projector);
+            }
+            int drawnPackets = 0;
+            int culledPackets = 0;
+            if (packagesVisible) {
+                TransportEngine transport = graphView.getTransport();
+                drawnPackets = transport.cull(projector);
+                culledPackets = transport.getChunkCount() - drawnPackets;
+            }
+            cullStats.set(new CullStats(graphView, drawnPackets, culledPackets));
+        });
+    }
+
+    /**
+     * Postupne nacitanie suboru na pozadi, objekty grafu pribudaju v scene pocas citania suboru.
+     * Aktualny graf sa vymeni az po nacitani celeho suboru, pri zruseni sa v scene obnovi povodny graf
+     * @param file textovy alebo binarny subor
+     * @param onDone vola sa po nacitani alebo zruseni nacitavania
+     * @return spustene nacitavanie, napr. na zobrazenie priebehu alebo zrusenie
+     */
+    public GraphLoader loadGraphAsync(File file, Runnable onDone) {
+        if (loader != null) {
+            loader.cancel();
+        }
+        loader = new GraphLoader(file, planetGroup, view -> {
+            if (graph != null) {
+                graph.stopBackgroundTasks();
+            }
+            graph = view.getGraph();
+            graph.startDistanceTable();
+            graphView = view;
+            requestViewUpdate();
+            onDone.run();
+        }, () -> {
+            requestViewUpdate(); // v scene je opat povodny graf
+            onDone.run();
+        });
+        loader.start();
+        labels.clear();
+        return loader;
     }
 
     /**
-     * Zapnutie/vypnutie animacie presunu vsetkych tovarov medzi planetami
+     * Zapnutie/vypnutie animacie presunu vsetkych tovarov medzi planetami,
+     * stav presunu (TransportEngine) sa pri dalsom zapnuti pouzije znovu
      * @param value true/falsie
      */
     public void setTransport(boolean value) {
+        TransportEngine transport = graphView.getTransport();
         if (value) {
-            for (Product product: graph.getProducts()) {
-                product.prepareProductShape();
-                planetGroup.getChildren().add(product.getProductShape());
-                product.startSending();
-            }
+            planetGroup.getChildren().add(transport.getNode());
+            transport.start();
             packagesVisible = true;
+            requestViewUpdate();
         } else {
-            for (Product product: graph.getProducts()) {
-                product.stopSending();
-                planetGroup.getChildren().remove(product.getProductShape());
-            }
+            transport.stop();
+            planetGroup.getChildren().remove(transport.getNode());
             packagesVisible = false;
         }
     }
@@ -0,0 +1,134 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pravidelna priestorova mriezka nad suradnicami planet. Planety su ulozene zoradene podla policok,
+ * pre kazde policko je znama gula, ktora obsahuje vsetky jeho planety. Pri orezavani podla pohladu kamery
+ * (ViewProjector.isVisible) sa najprv testuju policka, policka mimo zorneho pola sa preskocia
+ * a jednotlivo sa testuju vsetky planety v kazdom viditelnom policku.
+ */
+public class SpatialGrid {
+
+    private static final int PLANETS_PER_CELL = 16;
+    private static final int MAX_CELLS_PER_AXIS = 64;
+
+    private final Planet[] planets;
+    private final int[] cellStart;
+    private final double[] cellSpheres; // x, y, z, polomer pre kazde policko
+
+    /**
+     * @param planets planety, ktore sa vlozia do mriezky
+     */
+    public SpatialGrid(List<Planet> planets) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (Planet planet: planets) {
+            minX = Math.min(minX, planet.getX());
+            minY = Math.min(minY, planet.getY());
+            minZ = Math.min(minZ, planet.getZ());
+            maxX = Math.max(maxX, planet.getX());
+            maxY = Math.max(maxY, planet.getY());
+            maxZ = Math.max(maxZ, planet.getZ());
+        }
+        int axis = (int) Math.round(Math.cbrt((double) planets.size() / PLANETS_PER_CELL));
+        axis = Math.max(1, Math.min(MAX_CELLS_PER_AXIS, axis));
+        int cellCount = axis * axis * axis;
+        int[] cells = new int[planets.size()];
+        cellStart = new int[cellCount + 1];
+        for (int i = 0; i < planets.size(); i++) {
+            Planet planet = planets.get(i);
+            int cx = cellCoordinate(planet.getX(), minX, maxX, axis);
+            int cy = cellCoordinate(planet.getY(), minY, maxY, axis);
+            int cz = cellCoordinate(planet.getZ(), minZ, maxZ, axis);
+            cells[i] = (cx * axis + cy) * axis + cz;
+            cellStart[cells[i] + 1]++;
+        }
+        for (int cell = 0; cell < cellCount; cell++) {
+            cellStart[cell + 1] += cellStart[cell];
+        }
+        this.planets = new Planet[planets.size()];
+        int[] next = Arrays.copyOf(cellStart, cellCount);
+        for (int i = 0; i < planets.size(); i++) {
+            this.planets[next[cells[i]]++] = planets.get(i);
+        }
+        cellSpheres = new double[cellCount * 4];
+        for (int cell = 0; cell < cellCount; cell++) {
+            boundCell(cell);
+        }
+    }
+
+    /**
+     *
+     * @return planety zoradene podla policok, susedne planety v zozname su blizko aj v priestore
+     */
+    public List<Planet> getPlanets() {
+        return Arrays.asList(planets);
+    }
+
+    /**
+     *
+     * @return pocet planet v mriezke
+     */
+    public int size() {
+        return planets.length;
+    }
+
+    /**
+     * Najde planety v zornom poli kamery, planety v polickach mimo zorneho pola sa netestuju
+     * @param projector premietanie z aktualneho pohladu kamery
+     * @param visible pole aspon s size() prvkami, na jeho zaciatok sa zapisu viditelne planety
+     * @return pocet viditelnych planet
+     */
+    public int cull(ViewProjector projector, Planet[] visible) {
+        int count = 0;
+        for (int cell = 0; cell + 1 < cellStart.length; cell++) {
+            int s = cell * 4;
+            if (cellStart[cell] == cellStart[cell + 1]
+                    || !projector.isVisible(cellSpheres[s], cellSpheres[s + 1], cellSpheres[s + 2], cellSpheres[s + 3])) {
+                continue;
+            }
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                Planet planet = planets[i];
+                if (projector.isVisible(planet.getX(), planet.getY(), planet.getZ(), planet.getRadius())) {
+                    visible[count++] = planet;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static int cellCoordinate(double value, double min, double max, int axis) {
+        if (max <= min) {
+            return 0;
+        }
+        return Math.min(axis - 1, (int) ((value - min) / (max - min) * axis));
+    }
+
+    /**
+     * Vypocita gulu obsahujucu vsetky planety policka (stred ohranicujuceho kvadra, polovica uhlopriecky a najvacsi polomer)
+     */
+    private void boundCell(int cell) {
+        if (cellStart[cell] == cellStart[cell + 1]) {
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        double maxRadius = 0;
+        for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+            Planet planet = planets[i];
+            minX = Math.min(minX, planet.getX());
+            minY = Math.min(minY, planet.getY());
+            minZ = Math.min(minZ, planet.getZ());
+            maxX = Math.max(maxX, planet.getX());
+            maxY = Math.max(maxY, planet.getY());
+            maxZ = Math.max(maxZ, planet.getZ());
+            maxRadius = Math.max(maxRadius, planet.getRadius());
+        }
+        int s = cell * 4;
+        cellSpheres[s] = (minX + maxX) / 2;
+        cellSpheres[s + 1] = (minY + maxY) / 2;
+        cellSpheres[s + 2] = (minZ + maxZ) / 2;
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        cellSpheres[s + 3] = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2 + maxRadius;
+    }
+}
@@ -0,0 +1,110 @@
+import javafx.scene.image.Image;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Spolocna vyrovnavacia pamat textur planet pre celu aplikaciu.
+ * Textura sa dekoduje az pri prvej poziadavke, na pozadi v niekolkych vlaknach naraz;
+ * subezne poziadavky na tu istu texturu dostanu ten isty buduci vysledok.
+ * Dekodovane textury ostavaju v pamati aj po opatovnom nacitani grafu, obe sady textur
+ * (bezna a kvalitnejsia) sa ukladaju oddelene, preto prepnutie kvality nic nenacitava znova.
+ */
+public class TextureCache {
+
+    public static final int TEXTURE_COUNT = 15;
+
+    private static final String TEXTURES_DIR = "/sources/textures/";
+    private static final String BETTER_TEXTURES_DIR = "/sources/textures50/";
+    private static final ConcurrentHashMap<String, CompletableFuture<Image>> TEXTURES = new ConcurrentHashMap<>();
+    private static final ExecutorService DECODER = Executors.newFixedThreadPool(
+            Math.min(4, Runtime.getRuntime().availableProcessors()), runnable -> {
+                Thread thread = new Thread(runnable, "texture-decoder");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static volatile boolean betterQuality;
+
+    /**
+     * Vrati texturu v aktualne nastavenej kvalite, ak este nie je dekodovana, spusti jej dekodovanie
+     * @param index index textury (0 az TEXTURE_COUNT - 1)
+     * @return buduci obrazok textury
+     */
+    public static CompletableFuture<Image> request(int index) {
+        return request(index, betterQuality);
+    }
+
+    /**
+     * Vrati texturu v zadanej kvalite, ak este nie je dekodovana, spusti jej dekodovanie
+     * @param index index textury (0 az TEXTURE_COUNT - 1)
+     * @param betterQuality ak true, tak z kvalitnejsej sady textur
+     * @return buduci obrazok textury
+     */
+    public static CompletableFuture<Image> request(int index, boolean betterQuality) {
+        String url = (betterQuality ? BETTER_TEXTURES_DIR : TEXTURES_DIR) + index + ".jpg";
+        boolean[] created = new boolean[1];
+        CompletableFuture<Image> texture = TEXTURES.computeIfAbsent(url, key -> {
+            created[0] = true;
+            return CompletableFuture.supplyAsync(() -> decode(key), DECODER);
+        });
+        if (created[0]) {
+            // az mimo computeIfAbsent, rychlo zlyhane dekodovanie by inak menilo mapu pocas vkladania
+            texture.whenComplete((image, e) -> {
+                if (e != null) {
+                    TEXTURES.remove(url, texture); // pri dalsej poziadavke sa skusi znova
+                }
+            });
+        }
+        return texture;
+    }
+
+    /**
+     * Vrati dekodovanu texturu, v pripade potreby pocka na jej dekodovanie
+     * @param index index textury (0 az TEXTURE_COUNT - 1)
+     * @param betterQuality ak true, tak z kvalitnejsej sady textur
+     * @return obrazok textury
+     */
+    public static Image get(int index, boolean betterQuality) {
+        return request(index, betterQuality).join();
+    }
+
+    /**
+     * Nastavi kvalitu textur pre dalsie poziadavky bez udania kvality
+     * @param value ak true, tak kvalitnejsia sada textur
+     */
+    public static void setBetterQuality(boolean value) {
+        betterQuality = value;
+    }
+
+    /**
+     *
+     * @return true, ak sa pouziva kvalitnejsia sada textur
+     */
+    public static boolean isBetterQuality() {
+        return betterQuality;
+    }
+
+    /**
+     *
+     * @return pocet textur v pamati (aj tych, ktore sa prave dekoduju)
+     */
+    public static int size() {
+        return TEXTURES.size();
+    }
+
+    private static Image decode(String url) {
+        InputStream stream = SpaceGraph3D.class.getResourceAsStream(url);
+        if (stream == null) {
+            throw new IllegalStateException("texture " + url + " not found on the classpath");
+        }
+        Image image = new Image(stream);
+        if (image.isError()) {
+            throw new IllegalStateException("cannot decode texture " + url, image.getException());
+        }
+        return image;
+    }
+}
@@ -0,0 +1,250 @@
+import javafx.animation.AnimationTimer;
+import javafx.scene.Group;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Presun tovarov (Product) po spojoch grafu ako jedna simulacia namiesto samostatnej animacie pre kazdy tovar.
+ * Zaciatky a smery spojov, rychlosti a pociatocne fazy tovarov su ulozene v poliach (x, y, z po sebe),
+ * poloha tovaru na spoji zavisi len od casu, pocas ktoreho presun bezi, takze sa pri vypnuti a zapnuti nic neprepocitava.
+ * Tovary su vykreslene ako osemsteny v niekolkych sietach trojuholnikov (PACKETS_PER_CHUNK tovarov v jednej sieti)
+ * s farbou z palety LinkMesh. AnimationTimer v kazdom snimku prepocita vrcholy len vo viditelnych sietach (cull),
+ * pri velkom pocte tovarov sucasne vo vsetkych vlaknach ForkJoinPool-u.
+ */
+public class TransportEngine {
+
+    private static final int PACKETS_PER_CHUNK = 5_000;
+    private static final int POINTS_PER_PACKET = 6;
+    private static final int FACES_PER_PACKET = 8;
+    private static final float PACKET_RADIUS = 5;
+    private static final double MIN_DURATION = 20; // sekundy jedneho prechodu po spoji
+    private static final double MAX_DURATION = 100;
+    private static final int PARALLEL_THRESHOLD = 20_000;
+
+    private final int count;
+    private final float[] starts;
+    private final float[] deltas;
+    private final float[] speeds; // prechody spoja za sekundu
+    private final float[] phases;
+    private final Chunk[] chunks;
+    private final Group node = new Group();
+    private final AnimationTimer timer;
+    private long elapsed; // cas v nanosekundach, pocas ktoreho presun bezal
+    private long last;
+    private boolean running;
+
+    /**
+     * @param products tovary grafu, kazdy sa presuva po svojom spoji
+     */
+    public TransportEngine(List<Product> products) {
+        count = products.size();
+        starts = new float[count * 3];
+        deltas = new float[count * 3];
+        speeds = new float[count];
+        phases = new float[count];
+        Random random = new Random();
+        for (int i = 0; i < count; i++) {
+            Planet from = products.get(i).getLink().getFrom();
+            Planet to = products.get(i).getLink().getTo();
+            starts[i * 3] = (float) from.getX();
+            starts[i * 3 + 1] = (float) from.getY();
+            starts[i * 3 + 2] = (float) from.getZ();
+            deltas[i * 3] = (float) (to.getX() - from.getX());
+            deltas[i * 3 + 1] = (float) (to.getY() - from.getY());
+            deltas[i * 3 + 2] = (float) (to.getZ() - from.getZ());
+            speeds[i] = (float) (1 / (MIN_DURATION + random.nextDouble() * (MAX_DURATION - MIN_DURATION)));
+            phases[i] = random.nextFloat();
+        }
+        chunks = new Chunk[(count + PACKETS_PER_CHUNK - 1) / PACKETS_PER_CHUNK];
+        for (int c = 0; c < chunks.length; c++) {
+            int first = c * PACKETS_PER_CHUNK;
+            chunks[c] = new Chunk(products, first, Math.min(count, first + PACKETS_PER_CHUNK) - first);
+            node.getChildren().add(chunks[c].view);
+        }
+        node.setMouseTransparent(true);
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (last >= 0) {
+                    elapsed += now - last;
+                }
+                last = now;
+                update();
+            }
+        };
+        update();
+    }
+
+    /**
+     *
+     * @return skupina sieti tovarov, pri zapnuti presunu sa prida do sceny
+     */
+    public Group getNode() {
+        return node;
+    }
+
+    /**
+     * Spusti presun, tovary pokracuju z poloh, v ktorych sa zastavili
+     */
+    public void start() {
+        if (!running) {
+            last = -1;
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Zastavi presun
+     */
+    public void stop() {
+        timer.stop();
+        running = false;
+    }
+
+    /**
+     *
+     * @return pocet tovarov
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     *
+     * @return pocet sieti tovarov
+     */
+    public int getChunkCount() {
+        return chunks.length;
+    }
+
+    /**
+     * Skryje siete, ktorych spoje su cele mimo zorneho pola kamery, ich tovary sa neprepocitavaju
+     * @param projector premietanie z aktualneho pohladu kamery
+     * @return pocet zobrazenych sieti
+     */
+    public int cull(ViewProjector projector) {
+        int drawn = 0;
+        for (Chunk chunk: chunks) {
+            boolean visible = chunk.bounds.isVisible(projector);
+            if (visible && !chunk.visible) {
+                chunk.move(elapsed / 1e9); // poloha sa od skrytia siete zmenila
+                chunk.apply();
+            }
+            chunk.visible = visible;
+            chunk.view.setVisible(visible);
+            if (visible) {
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    /**
+     * Prepocita polohy tovarov vo viditelnych sietach a prenesie ich do sieti
+     */
+    private void update() {
+        double seconds = elapsed / 1e9;
+        IntStream indices = IntStream.range(0, chunks.length).filter(c -> chunks[c].visible);
+        if (count >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(c -> chunks[c].move(seconds));
+        for (Chunk chunk: chunks) {
+            if (chunk.visible) {
+                chunk.apply();
+            }
+        }
+    }
+
+    /**
+     * Jedna siet s najviac PACKETS_PER_CHUNK tovarmi a jej vrcholy
+     */
+    private class Chunk {
+
+        final TriangleMesh mesh = new TriangleMesh();
+        final MeshView view = new MeshView(mesh);
+        final ChunkBounds bounds = new ChunkBounds();
+        final int first;
+        final int size;
+        final float[] points;
+        boolean visible = true;
+
+        /**
+         * Zapise trojuholniky osemstenov (vrcholy +x, -x, +y, -y, +z, -z), pre kazdy oktant jeden trojuholnik
+         * otoceny von, s texturovou suradnicou farby tovaru
+         */
+        Chunk(List<Product> products, int first, int size) {
+            this.first = first;
+            this.size = size;
+            points = new float[size * POINTS_PER_PACKET * 3];
+            int[] faces = new int[size * FACES_PER_PACKET * 6];
+            for (int p = 0; p < size; p++) {
+                Product product = products.get(first + p);
+                int slot = LinkMesh.paletteSlot(product.getColor());
+                int base = p * POINTS_PER_PACKET;
+                int i = p * FACES_PER_PACKET * 6;
+                for (int octant = 0; octant < 8; octant++) {
+                    int x = base + (octant & 1);
+                    int y = base + 2 + (octant >> 1 & 1);
+                    int z = base + 4 + (octant >> 2 & 1);
+                    boolean outward = Integer.bitCount(octant) % 2 == 0; // parny pocet zapornych osi
+                    faces[i] = x;
+                    faces[i + 2] = outward ? y : z;
+                    faces[i + 4] = outward ? z : y;
+                    faces[i + 1] = faces[i + 3] = faces[i + 5] = slot;
+                    i += 6;
+                }
+                Planet from = product.getLink().getFrom();
+                Planet to = product.getLink().getTo();
+                bounds.add(from.getX(), from.getY(), from.getZ(), PACKET_RADIUS);
+                bounds.add(to.getX(), to.getY(), to.getZ(), PACKET_RADIUS);
+            }
+            mesh.getTexCoords().setAll(LinkMesh.PALETTE_TEXCOORDS);
+            mesh.getPoints().setAll(points);
+            mesh.getFaces().setAll(faces);
+            view.setMaterial(LinkMesh.getPaletteMaterial());
+        }
+
+        /**
+         * Vypocita vrcholy osemstenov tovarov v case seconds, moze bezat mimo JavaFX vlakna
+         */
+        void move(double seconds) {
+            for (int p = 0; p < size; p++) {
+                int i = first + p;
+                double phase = phases[i] + speeds[i] * seconds;
+                float t = (float) (phase - Math.floor(phase));
+                float x = starts[i * 3] + deltas[i * 3] * t;
+                float y = starts[i * 3 + 1] + deltas[i * 3 + 1] * t;
+                float z = starts[i * 3 + 2] + deltas[i * 3 + 2] * t;
+                int o = p * POINTS_PER_PACKET * 3;
+                points[o] = x + PACKET_RADIUS;
+                points[o + 1] = y;
+                points[o + 2] = z;
+                points[o + 3] = x - PACKET_RADIUS;
+                points[o + 4] = y;
+                points[o + 5] = z;
+                points[o + 6] = x;
+                points[o + 7] = y + PACKET_RADIUS;
+                points[o + 8] = z;
+                points[o + 9] = x;
+                points[o + 10] = y - PACKET_RADIUS;
+                points[o + 11] = z;
+                points[o + 12] = x;
+                points[o + 13] = y;
+                points[o + 14] = z + PACKET_RADIUS;
+                points[o + 15] = x;
+                points[o + 16] = y;
+                points[o + 17] = z - PACKET_RADIUS;
+            }
+        }
+
+        void apply() {
+            mesh.getPoints().set(0, points, 0, points.length);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * Znovupouzitelne pracovne polia pre prehladavanie grafu (BFS, A*), aby jednotlive dotazy
+ * po zahriati nealokovali nic okrem samotneho vysledku.
+ * Namiesto nulovania poli pred kazdym dotazom sa zvysi cislo epochy: vrchol je navstiveny,
+ * ak je jeho epocha rovna aktualnej epoche.
+ * Instancia nie je vlaknovo bezpecna, kazde vlakno ma vlastnu (forCurrentThread()).
+ */
+public class TraversalContext {
+
+    private static final ThreadLocal<TraversalContext> CONTEXTS = ThreadLocal.withInitial(TraversalContext::new);
+
+    private int[] visitEpochs = new int[0];
+    private int[] closedEpochs = new int[0];
+    private int[] predecessors = new int[0];
+    private double[] distances = new double[0];
+    private int[] queue = new int[1];
+    private int head;
+    private int tail;
+    private int epoch;
+    private int visitCount;
+    private IndexedMinHeap heap = new IndexedMinHeap(0);
+    private TraversalContext reverse;
+
+    /**
+     *
+     * @return pracovne polia prisluchajuce aktualnemu vlaknu
+     */
+    public static TraversalContext forCurrentThread() {
+        return CONTEXTS.get();
+    }
+
+    /**
+     * Vrati druhy kontext viazany na tento, pre prehladavanie od konecneho vrcholu
+     * v obojsmernych algoritmoch
+     * @return pracovne polia pre spatne prehladavanie
+     */
+    public TraversalContext getReverse() {
+        if (reverse == null) {
+            reverse = new TraversalContext();
+        }
+        return reverse;
+    }
+
+    /**
+     * Pripravi kontext na novy dotaz nad grafom so zadanym poctom vrcholov:
+     * v pripade potreby zvacsi polia, zahodi vsetky navstevy a vyprazdni frontu
+     * @param planetCount pocet vrcholov grafu
+     */
+    public void begin(int planetCount) {
+        if (visitEpochs.length < planetCount) {
+            visitEpochs = new int[planetCount];
+            closedEpochs = new int[planetCount];
+            predecessors = new int[planetCount];
+            distances = new double[planetCount];
+            heap = new IndexedMinHeap(planetCount);
+            queue = new int[Integer.highestOneBit(Math.max(1, planetCount)) << 1]; // aspon planetCount + 1
+            epoch = 0;
+        }
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visitEpochs, 0);
+            Arrays.fill(closedEpochs, 0);
+            epoch = 0;
+        }
+        epoch++;
+        visitCount = 0;
+        head = 0;
+        tail = 0;
+        heap.clear();
+    }
+
+    /**
+     *
+     * @param v identifikator vrcholu
+     * @return true, ak bol vrchol v aktualnom dotaze navstiveny
+     */
+    public boolean isVisited(int v) {
+        return visitEpochs[v] == epoch;
+    }
+
+    /**
+     * Oznaci vrchol ako navstiveny a zapamata si jeho predchodcu
+     * @param v identifikator vrcholu
+     * @param predecessor identifikator predchodcu
+     */
+    public void visit(int v, int predecessor) {
+        if (visitEpochs[v] != epoch) {
+            visitCount++;
+        }
+        visitEpochs[v] = epoch;
+        predecessors[v] = predecessor;
+    }
+
+    /**
+     *
+     * @return pocet vrcholov navstivenych v aktualnom dotaze
+     */
+    public int getVisitCount() {
+        return visitCount;
+    }
+
+    /**
+     *
+     * @param v identifikator navstiveneho vrcholu
+     * @return identifikator predchodcu vrcholu
+     */
+    public int getPredecessor(int v) {
+        return predecessors[v];
+    }
+
+    /**
+     *
+     * @param v identifikator vrcholu
+     * @return true, ak bol vrchol v aktualnom dotaze uzavrety (definitivne spracovany)
+     */
+    public boolean isClosed(int v) {
+        return closedEpochs[v] == epoch;
+    }
+
+    /**
+     * Oznaci vrchol ako uzavrety
+     * @param v identifikator vrcholu
+     */
+    public void close(int v) {
+        closedEpochs[v] = epoch;
+    }
+
+    /**
+     *
+     * @param v identifikator vrcholu
+     * @return doteraz najkratsia vzdialenost vrcholu, nekonecno pre nenavstiveny vrchol
+     */
+    public double getDistance(int v) {
+        return isVisited(v) ? distances[v] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Navstivi vrchol s novou vzdialenostou a predchodcom
+     * @param v identifikator vrcholu
+     * @param predecessor identifikator predchodcu
+     * @param distance vzdialenost vrcholu od startu
+     */
+    public void visit(int v, int predecessor, double distance) {
+        visit(v, predecessor);
+        distances[v] = distance;
+    }
+
+    /**
+     * Vlozi vrchol na koniec kruhovej fronty
+     * @param v identifikator vrcholu
+     */
+    public void enqueue(int v) {
+        queue[tail] = v;
+        tail = (tail + 1) & (queue.length - 1);
+    }
+
+    /**
+     * Odoberie vrchol zo zaciatku kruhovej fronty
+     * @return identifikator vrcholu
+     */
+    public int dequeue() {
+        int v = queue[head];
+        head = (head + 1) & (queue.length - 1);
+        return v;
+    }
+
+    /**
+     *
+     * @return pocet vrcholov vo fronte
+     */
+    public int queueSize() {
+        return (tail - head) & (queue.length - 1);
+    }
+
+    /**
+     *
+     * @return true, ak je fronta prazdna
+     */
+    public boolean isQueueEmpty() {
+        return head == tail;
+    }
+
+    /**
+     *
+     * @return prioritna fronta (halda) pre algoritmy s vahami spojov
+     */
+    public IndexedMinHeap getHeap() {
+        return heap;
+    }
+
+    /**
+     * Zostavi cestu zo startoveho do konecneho vrcholu podla zapamatanych predchodcov,
+     * alokuje len vysledne pole
+     * @param from identifikator startoveho vrcholu
+     * @param to identifikator konecneho vrcholu
+     * @return identifikatory vrcholov cesty v poradi od startu
+     */
+    public int[] buildPath(int from, int to) {
+        int length = 1;
+        for (int v = to; v != from; v = predecessors[v]) {
+            length++;
+        }
+        int[] result = new int[length];
+        for (int v = to, i = length - 1; i >= 0; v = predecessors[v], i--) {
+            result[i] = v;
+        }
+        return result;
+    }
+}
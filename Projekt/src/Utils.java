@@ -1,29 +1,26 @@
-import javafx.geometry.Point3D;
+import javafx.scene.control.Alert;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
 import java.util.*;
 
 public class Utils {
 
     /**
-     * Nacita obrazky textur planet
+     * Vrati obrazky vsetkych textur planet z TextureCache, chybajuce textury dekoduje paralelne
      * @param betterQuality ak true, tak vyberie kvalitnejsie obrazky
      * @return zoznam instancii Image obrazkov textur
      */
     public static List<Image> getPlanetTextures(boolean betterQuality) {
-        List<Image> textures = new ArrayList<>();
-        String dir;
-        if (betterQuality) {
-            dir = "/sources/textures50/";
-        } else {
-            dir = "/sources/textures/";
+        for (int i = 0; i < TextureCache.TEXTURE_COUNT; i++) {
+            TextureCache.request(i, betterQuality);
         }
-        for (int i = 0; i < 15; i++) {
-            String url = dir + i + ".jpg";
-            textures.add(new Image(SpaceGraph3D.class.getResourceAsStream(url)));
+        List<Image> textures = new ArrayList<>();
+        for (int i = 0; i < TextureCache.TEXTURE_COUNT; i++) {
+            textures.add(TextureCache.get(i, betterQuality));
         }
         return textures;
     }
@@ -40,54 +37,39 @@ public class Utils {
 
     /**
      * Nacita a rozparsuje textovy subor, vytvori nove objekty Planet (vrcholov)
-     * a Link (spojov) a vlozi ich do datovej struktury graf
+     * a Link (spojov) a vlozi ich do datovej struktury graf.
+     * Nevytvara ziadne graficke objekty, preto nepotrebuje beziaci JavaFX toolkit.
+     * Samotne citanie suboru robi GraphFileParser, chyby vo formate vypise s cislom riadku.
+     * Subory s priponou GraphBinaryFile.EXTENSION cita ako binarny format
      * v GUI je momentalne striktne obmedzeny vyber vstupneho suboru na tie, co su v zlozke src/sources/graphs
      * @param file vstupny textovy subor
      * @param g instancia grafu
      */
-    public static void loadGraphFromFile(File file, Graph g) {
-        List<Image> planetTextures = getPlanetTextures(false);
-        try (Scanner scanner = new Scanner(file)) {
-            String[] data;
-            String name, from, to, product;
-            Color color;
-            double x, y, z, radius;
-            int textureIndex;
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                if (line.equals("#####")) {
-                    break;
-                }
-                data = line.split("\\|");
-                name = data[0];
-                x = Double.parseDouble(data[1]);
-                y = Double.parseDouble(data[2]);
-                z = Double.parseDouble(data[3]);
-                radius = Double.parseDouble(data[4]);
-                color = Color.web(data[5]);
-                textureIndex = Integer.parseInt(data[6]);
-                Planet newPlanet = new Planet(name, new Point3D(x, y, z), radius, getTexture(textureIndex, planetTextures), color);
-                g.insertPlanet(newPlanet);
+    public static void loadGraphFromFile(File file, Graph g) throws IOException {
+        try {
+            if (GraphBinaryFile.isBinary(file)) {
+                GraphBinaryFile.read(file, g);
+            } else {
+                GraphFileParser.parse(file, g);
             }
-            while (scanner.hasNextLine()) {
-                String line = scanner.nextLine();
-                data = line.split("\\|");
-                from = data[0];
-                to = data[1];
-                product = data[2];
-                Planet planetFrom = Algorithms.findPlanet(g, from);
-                Planet planetTo = Algorithms.findPlanet(g, to);
-                if (planetFrom != null && planetTo != null) {
-                    planetFrom.addNeigbour(planetTo);
-                    planetTo.addNeigbour(planetFrom);
-                    g.insertLink(new Link(planetFrom, planetTo, product));
-                }
-            }
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+        } catch (ClosedByInterruptException e) {
+            Thread.currentThread().interrupt(); // nacitavanie bolo zrusene (GraphLoader)
         }
     }
 
+    /**
+     * Zobrazi pouzivatelovi okno s chybou, neblokuje (da sa volat aj z animacie), vola sa v JavaFX vlakne
+     * @param header strucny popis, co zlyhalo
+     * @param error pricina chyby
+     */
+    public static void showError(String header, Throwable error) {
+        Alert alert = new Alert(Alert.AlertType.ERROR);
+        alert.setTitle("Error");
+        alert.setHeaderText(header);
+        alert.setContentText(error.getMessage() != null ? error.getMessage() : error.toString());
+        alert.show();
+    }
+
     /**
      *
      * @return nahodna RGB farba
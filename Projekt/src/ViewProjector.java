@@ -0,0 +1,126 @@
+import javafx.scene.Camera;
+import javafx.scene.Node;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.transform.NonInvertibleTransformException;
+import javafx.scene.transform.Transform;
+
+/**
+ * Premietanie bodov zo suradnic skupiny objektov (napr. skupiny planet) do suradnic kamery a na obrazovku.
+ * Transformacia sa pocita raz v update(), potom je premietnutie kazdeho bodu len niekolko nasobeni,
+ * bez volania localToScene pre kazdy objekt. Predpoklada PerspectiveCamera s okom v jej pociatku.
+ * Okrem premietania vie zistit, ci je gula aspon ciastocne v zornom poli kamery (orezavanie podla pohladu).
+ */
+public class ViewProjector {
+
+    private final SubScene scene;
+    private final Node node;
+    private double mxx, mxy, mxz, tx;
+    private double myx, myy, myz, ty;
+    private double mzx, mzy, mzz, tz;
+    private double scale;
+    private double focalLength;
+    private double halfWidth, halfHeight;
+    private double horizontalNorm, verticalNorm;
+    private double nearClip, farClip;
+
+    /**
+     * @param scene scena s kamerou, ktorou sa pozera na objekty
+     * @param node skupina objektov, v ktorej suradniciach su premietane body
+     */
+    public ViewProjector(SubScene scene, Node node) {
+        this.scene = scene;
+        this.node = node;
+        update();
+    }
+
+    /**
+     * Prepocita transformaciu podla aktualnej polohy kamery a transformacii skupiny objektov
+     */
+    public void update() {
+        Camera camera = scene.getCamera();
+        Transform toCamera;
+        try {
+            toCamera = camera.getLocalToSceneTransform().createInverse()
+                    .createConcatenation(node.getLocalToSceneTransform());
+        } catch (NonInvertibleTransformException e) {
+            toCamera = node.getLocalToSceneTransform();
+        }
+        mxx = toCamera.getMxx();
+        mxy = toCamera.getMxy();
+        mxz = toCamera.getMxz();
+        tx = toCamera.getTx();
+        myx = toCamera.getMyx();
+        myy = toCamera.getMyy();
+        myz = toCamera.getMyz();
+        ty = toCamera.getTy();
+        mzx = toCamera.getMzx();
+        mzy = toCamera.getMzy();
+        mzz = toCamera.getMzz();
+        tz = toCamera.getTz();
+        scale = Math.sqrt(mxx * mxx + myx * myx + mzx * mzx);
+        double fieldOfView = 30;
+        boolean vertical = true;
+        if (camera instanceof PerspectiveCamera) {
+            fieldOfView = ((PerspectiveCamera) camera).getFieldOfView();
+            vertical = ((PerspectiveCamera) camera).isVerticalFieldOfView();
+        }
+        halfWidth = scene.getWidth() / 2;
+        halfHeight = scene.getHeight() / 2;
+        focalLength = (vertical ? halfHeight : halfWidth) / Math.tan(Math.toRadians(fieldOfView / 2));
+        horizontalNorm = Math.sqrt(focalLength * focalLength + halfWidth * halfWidth);
+        verticalNorm = Math.sqrt(focalLength * focalLength + halfHeight * halfHeight);
+        nearClip = camera.getNearClip();
+        farClip = camera.getFarClip();
+    }
+
+    /**
+     * Zisti, ci gula aspon ciastocne zasahuje do zorneho pola kamery (medzi blizku a vzdialenu rovinu orezania
+     * a do stran obrazovky). Vzdialenost od bocnych rovin sa pocita v suradniciach kamery
+     * @param radius polomer v suradniciach skupiny objektov
+     * @return false, ak je gula urcite mimo zorneho pola
+     */
+    public boolean isVisible(double x, double y, double z, double radius) {
+        double r = radius * scale;
+        double depth = depth(x, y, z);
+        if (depth < nearClip - r || depth > farClip + r) {
+            return false;
+        }
+        double cameraX = mxx * x + mxy * y + mxz * z + tx;
+        double cameraY = myx * x + myy * y + myz * z + ty;
+        return Math.abs(cameraX) * focalLength - depth * halfWidth <= r * horizontalNorm
+                && Math.abs(cameraY) * focalLength - depth * halfHeight <= r * verticalNorm;
+    }
+
+    /**
+     * Vodorovna suradnica bodu na obrazovke (v pixeloch od laveho okraja sceny), len pre body pred kamerou
+     */
+    public double screenX(double x, double y, double z) {
+        return halfWidth + (mxx * x + mxy * y + mxz * z + tx) * focalLength / depth(x, y, z);
+    }
+
+    /**
+     * Zvisla suradnica bodu na obrazovke (v pixeloch od horneho okraja sceny), len pre body pred kamerou
+     */
+    public double screenY(double x, double y, double z) {
+        return halfHeight + (myx * x + myy * y + myz * z + ty) * focalLength / depth(x, y, z);
+    }
+
+    /**
+     * Vzdialenost bodu pred kamerou v smere jej pohladu
+     * @return hlbka bodu, zaporna pre body za kamerou
+     */
+    public double depth(double x, double y, double z) {
+        return mzx * x + mzy * y + mzz * z + tz;
+    }
+
+    /**
+     * Velkost polomeru gule po premietnuti na obrazovku
+     * @param radius polomer v suradniciach skupiny objektov
+     * @return polomer v pixeloch, 0 pre gule za kamerou
+     */
+    public double projectedRadius(double x, double y, double z, double radius) {
+        double depth = depth(x, y, z);
+        return depth <= 0 ? 0 : radius * scale * focalLength / depth;
+    }
+}